@@ -3,6 +3,7 @@ package controller;
 import model.*;
 import model.primitives.Line;
 import model.transformation.Animation;
+import model.transformation.AnimationScheduler;
 import model.transformation.Transformable;
 import model.transformation.Transformer;
 import renderer.GPURenderer;
@@ -18,7 +19,6 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.beans.PropertyChangeEvent;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,24 +26,34 @@ import java.util.List;
  * Controls rendering and interaction in application.
  *
  * @author Milan Košťák, Stanislav Čapek
- * @version 1.5
+ * @version 1.6
  */
 public class Controller3D {
 
-    private final List<Animation> animations = new ArrayList<>();
-    private final List<Renderable> renderables = new ArrayList<>();
+    private static final int ANIMATION_STEPS_PER_SECOND = 120;
+    private static final int FRAMES_PER_SECOND = 60;
+    private final AnimationScheduler scheduler = new AnimationScheduler(ANIMATION_STEPS_PER_SECOND);
+    private final RenderLoop renderLoop;
+    private final Raster raster;
     private final double moveStep = 1d;
     private final double rotateStep = 10d;
     private final Renderable[] axises;
     private final Camera defCamera;
+    // renderer používá jen vlákno vykreslování, ostatní stav jen mění obsluha vstupu
     private GPURenderer renderer;
-    private Mat4 model, projection, persMat, orthoMat;
-    private Camera camera;
+    private Mat4 model, persMat, orthoMat;
+    private volatile Mat4 projection;
+    private volatile Camera camera;
+    private volatile boolean wireframe;
+    private volatile Renderable[] renderables = new Renderable[0];
     private boolean toggleAnimate;
 
 
     public Controller3D(Raster raster) {
+        this.raster = raster;
         this.renderer = new SurfaceGPURenderer(raster);
+        renderer.setLazyClear(true);
+        renderLoop = new RenderLoop(raster, this::display, FRAMES_PER_SECOND);
 
         model = new Mat4Identity(); // jednotková matice -> nic se s tělesem nestane
 
@@ -65,23 +75,39 @@ public class Controller3D {
         final Line axisZ = new Line(new Point3D(), new Point3D(0, 0, 2), Color.BLUE);
         axises = new Renderable[]{axisX, axisY, axisZ};
 
+        scheduler.setOnFinished(() -> {
+            createObjectsAndAnimations();
+            renderLoop.requestFrame();
+        });
         createObjectsAndAnimations();
+        scheduler.start();
         initListeners(raster);
-        display();
+        renderLoop.start();
     }
 
+    /**
+     * Draws one frame, it is called only from render loop.
+     */
     private void display() {
+        if (wireframe != renderer instanceof WireframeGPURenderer) {
+            renderer.dispose();
+            renderer = wireframe ? new WireframeGPURenderer(raster) : new SurfaceGPURenderer(raster);
+            renderer.setLazyClear(true);
+        }
+        final Camera camera = this.camera;
+
         renderer.clear();
 
         renderer.setView(camera.getViewMatrix());
         renderer.setProjection(projection);
+        renderer.setFrameTime(System.nanoTime());
 
         // vykreslení os
         renderer.setModel(new Mat4Identity());
         renderer.draw(axises);
 
         // vykreslení ostatních těles
-        renderer.draw(renderables.toArray(Renderable[]::new));
+        renderer.draw(renderables);
     }
 
 
@@ -137,7 +163,7 @@ public class Controller3D {
                         camera = defCamera;
                         break;
                     case KeyEvent.VK_V:
-                        changeRendere(raster);
+                        changeRendere();
                         break;
                     case KeyEvent.VK_C:
                         changeProjection();
@@ -153,6 +179,9 @@ public class Controller3D {
                             raster.setTextAnimation("Animation: playing");
                             toggleAnimate = true;
                         }
+                        scheduler.setPaused(!toggleAnimate);
+                        // během animace se kreslí každý snímek
+                        renderLoop.setContinuous(toggleAnimate);
                         break;
 //                    case KeyEvent.VK_SPACE:
 //                        camera = defaultCamera;
@@ -185,7 +214,8 @@ public class Controller3D {
 //                        break;
 
                 }
-                display();
+                // jen změna stavu, snímek vykreslí smyčka vykreslování
+                renderLoop.requestFrame();
             }
         });
 //        ovládání myší
@@ -225,7 +255,7 @@ public class Controller3D {
                 camera = camera.withZenith(Math.toRadians(zenith)).withAzimuth(Math.toRadians(azimut));
                 lastX = e.getX();
                 lastY = e.getY();
-                display();
+                renderLoop.requestFrame();
             }
 
         });
@@ -236,32 +266,11 @@ public class Controller3D {
                 raster.grabFocus();
             }
         });
-
-//        animace
-        raster.addPropertyChangeListener("fps", this::runAnimation);
-    }
-
-    private void runAnimation(PropertyChangeEvent evt) {
-        if (toggleAnimate) {
-            boolean isAnimationDone = true;
-            final int fps = (int) evt.getNewValue();
-            for (Animation animation : animations) {
-                animation.doAllAnimations(fps);
-                if (isAnimationDone) {
-                    isAnimationDone = animation.isDone();
-                }
-            }
-            if (isAnimationDone) {
-                createObjectsAndAnimations();
-            }
-        }
-        display();
-
     }
 
     private void createObjectsAndAnimations() {
-        animations.clear();
-        renderables.clear();
+        scheduler.clear();
+        final List<Renderable> renderables = new ArrayList<>();
         final Transformer t = new Transformer();
 
         //test textury
@@ -270,12 +279,16 @@ public class Controller3D {
         t.rotate(squareTextured,Math.toRadians(-90),0,0);
         t.move(squareTextured,0,-5,0);
         renderables.add(squareTextured);
+        if (squareTextured.getTexture() instanceof AsyncTexture2D) {
+            // dekódovaná textura se ukáže v dalším snímku
+            ((AsyncTexture2D) squareTextured.getTexture()).getLoaded().thenRun(renderLoop::requestFrame);
+        }
 
         final Cube cube = new Cube();
         cube.getTransformableState().setCenter(new Point3D(0, 0, 1));
         t.move(cube, -5, 5, 0);
         renderables.add(cube);
-        animations.add(createAnimationForCube(cube));
+        scheduler.add(createAnimationForCube(cube));
 
         final Cylinder cylinder = new Cylinder(12, 3);
         t.move(cylinder, 3, 3, 0);
@@ -285,18 +298,21 @@ public class Controller3D {
         t.move(pyramid1, 0, 0, 3);
         t.rotateByCenter(pyramid1, 0, Math.toRadians(180), 0);
         renderables.add(pyramid1);
-        animations.add(createAnimationForColoredPyramid(pyramid1));
+        scheduler.add(createAnimationForColoredPyramid(pyramid1));
 
         final Pyramid pyramid = new Pyramid();
         t.rotate(pyramid, 0, Math.toRadians(90), 0);
         t.move(pyramid, -2, 0, 0);
         pyramid.getTransformableState().setCenter(new Point3D());
         renderables.add(pyramid);
-        animations.add(createAnimationForPyramid(pyramid));
+        scheduler.add(createAnimationForPyramid(pyramid));
 
         final Sector sector = new Sector(15);
         t.move(sector, 3, 0, 0);
         renderables.add(sector);
+
+        // nová tělesa převezme až další snímek
+        this.renderables = renderables.toArray(Renderable[]::new);
     }
 
     /**
@@ -366,14 +382,11 @@ public class Controller3D {
     }
 
     /**
-     * It switches between surface and wireframe renderer.
-     *
-     * @param raster canvas to paint
+     * It switches between surface and wireframe renderer. The renderer is
+     * replaced by render loop before next frame.
      */
-    private void changeRendere(Raster raster) {
-        renderer = renderer instanceof SurfaceGPURenderer ?
-                new WireframeGPURenderer(raster) : new SurfaceGPURenderer(raster);
-        display();
+    private void changeRendere() {
+        wireframe = !wireframe;
     }
 
     /**
@@ -381,7 +394,6 @@ public class Controller3D {
      */
     private void changeProjection() {
         projection = projection instanceof Mat4PerspRH ? orthoMat : persMat;
-        display();
     }
 
 
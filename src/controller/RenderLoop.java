@@ -0,0 +1,144 @@
+package controller;
+
+import view.FrameBuffer;
+import view.Raster;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Instance of class {@code RenderLoop}. Renders frames on its own thread at
+ * most at a fixed rate. Every frame is drawn to the back buffer of
+ * {@link Raster} and presented by swapping the buffers, so Swing never paints
+ * an unfinished frame.
+ * <br><br>
+ * A frame is rendered only if it was requested by {@link #requestFrame()} or
+ * the loop is continuous (e.g. during animation). Any number of requests
+ * between two frames results in one frame with the latest state. When there
+ * is nothing to render the thread sleeps. An exception thrown while drawing
+ * a frame is reported and the frame is skipped, the loop keeps running.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class RenderLoop {
+
+    private final FrameBuffer frameBuffer;
+    private final Runnable renderFrame;
+    private final long frameNanos;
+    private final AtomicBoolean frameRequested = new AtomicBoolean(true);
+    private volatile boolean continuous;
+    private volatile Thread thread;
+
+    /**
+     * @param frameBuffer     target the frames are presented on
+     * @param renderFrame     draws one frame to the back buffer
+     * @param framesPerSecond target frame rate
+     * @throws IllegalArgumentException frame rate is lower than 1
+     */
+    public RenderLoop(FrameBuffer frameBuffer, Runnable renderFrame, int framesPerSecond) {
+        if (framesPerSecond < 1) {
+            throw new IllegalArgumentException("Frame rate has to be positive: " + framesPerSecond);
+        }
+        this.frameBuffer = frameBuffer;
+        this.renderFrame = renderFrame;
+        this.frameNanos = 1_000_000_000L / framesPerSecond;
+    }
+
+    /**
+     * Marks the frame as changed. It is rendered in next frame interval.
+     */
+    public void requestFrame() {
+        frameRequested.set(true);
+        final Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    /**
+     * Continuous loop renders every frame interval even without requests.
+     *
+     * @param continuous {@code true} for continuous rendering
+     */
+    public void setContinuous(boolean continuous) {
+        this.continuous = continuous;
+        if (continuous) {
+            requestFrame();
+        }
+    }
+
+    public boolean isContinuous() {
+        return continuous;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::run, "render-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the loop and waits until the current frame is finished, so a
+     * following {@link #start()} never runs two loops at once. Called from
+     * the loop thread itself it only ends the loop.
+     */
+    public synchronized void stop() {
+        final Thread old = thread;
+        if (old == null) {
+            return;
+        }
+        thread = null;
+        old.interrupt();
+        if (old == Thread.currentThread()) {
+            return;
+        }
+        boolean interrupted = false;
+        while (old.isAlive()) {
+            try {
+                old.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        final Thread self = Thread.currentThread();
+        long deadline = System.nanoTime();
+        // smyčka, kterou nahradila novější, skončí i bez přerušení
+        while (thread == self && !self.isInterrupted()) {
+            if (!frameRequested.getAndSet(false) && !continuous) {
+                // nic se nezměnilo, vlákno spí do dalšího požadavku
+                LockSupport.park(this);
+                deadline = System.nanoTime();
+                continue;
+            }
+            try {
+                renderFrame.run();
+                frameBuffer.swapBuffers();
+            } catch (RuntimeException e) {
+                // chybný snímek se nezobrazí, smyčka běží dál
+                e.printStackTrace();
+            }
+
+            deadline += frameNanos;
+            long remaining = deadline - System.nanoTime();
+            if (remaining < 0) {
+                // snímek se nestihl, další začne hned a od nové doby
+                deadline -= remaining;
+            }
+            // požadavky během čekání snímek neuspíší, jen se sloučí
+            while (remaining > 0 && !self.isInterrupted()) {
+                LockSupport.parkNanos(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+    }
+}
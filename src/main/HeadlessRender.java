@@ -0,0 +1,105 @@
+package main;
+
+import model.Cube;
+import model.Cylinder;
+import model.Pyramid;
+import model.Renderable;
+import model.Sector;
+import model.primitives.Line;
+import model.transformation.Transformer;
+import renderer.GPURenderer;
+import renderer.SurfaceGPURenderer;
+import transforms.Camera;
+import transforms.Mat4Identity;
+import transforms.Mat4PerspRH;
+import transforms.Point3D;
+import transforms.Vec3D;
+import view.OffscreenFrameBuffer;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Renders scene without window to {@link OffscreenFrameBuffer}, camera orbits
+ * the scene a little every frame. Prints time of rendering and writes the last
+ * frame to PNG file.
+ * <br><br>
+ * Arguments: {@code [frames] [output.png] [width] [height]}, defaults are
+ * {@code 100 frame.png 800 600}.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class HeadlessRender {
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        final int frames = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        final File output = new File(args.length > 1 ? args[1] : "frame.png");
+        final int width = args.length > 2 ? Integer.parseInt(args[2]) : 800;
+        final int height = args.length > 3 ? Integer.parseInt(args[3]) : 600;
+
+        final OffscreenFrameBuffer frameBuffer = new OffscreenFrameBuffer(width, height);
+        final GPURenderer renderer = new SurfaceGPURenderer(frameBuffer);
+        renderer.setProjection(new Mat4PerspRH(Math.PI / 3, height / (float) width, 0.1, 50));
+
+        final Renderable[] axises = {
+                new Line(new Point3D(), new Point3D(2, 0, 0), Color.RED),
+                new Line(new Point3D(), new Point3D(0, 2, 0), Color.GREEN),
+                new Line(new Point3D(), new Point3D(0, 0, 2), Color.BLUE)
+        };
+        final Renderable[] renderables = createObjects();
+
+        Camera camera = new Camera()
+                .withPosition(new Vec3D(5.17, -10.6, 7.55))
+                .withAzimuth(1.92)
+                .withZenith(-0.52);
+
+        final long start = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            renderer.clear();
+            renderer.setView(camera.getViewMatrix());
+            renderer.setModel(new Mat4Identity());
+            renderer.draw(axises);
+            renderer.draw(renderables);
+            frameBuffer.swapBuffers();
+            camera = camera.withAzimuth(camera.getAzimuth() + Math.toRadians(1));
+        }
+        final long elapsed = System.nanoTime() - start;
+        renderer.dispose();
+
+        System.out.printf("%d frames %dx%d in %.1f ms, %.2f ms per frame%n",
+                frames, width, height, elapsed / 1e6, elapsed / 1e6 / Math.max(frames, 1));
+        ImageIO.write(frameBuffer.toImage(), "png", output);
+        System.out.println("Last frame written to " + output.getAbsolutePath());
+    }
+
+    /**
+     * Scene of {@link controller.Controller3D} without textured square, so no
+     * resources are needed
+     */
+    private static Renderable[] createObjects() {
+        final Transformer t = new Transformer();
+
+        final Cube cube = new Cube();
+        t.move(cube, -5, 5, 0);
+
+        final Cylinder cylinder = new Cylinder(12, 3);
+        t.move(cylinder, 3, 3, 0);
+
+        final Pyramid pyramid1 = new Pyramid(Color.WHITE, Color.RED, Color.BLUE, Color.GREEN, Color.YELLOW);
+        t.move(pyramid1, 0, 0, 3);
+        t.rotateByCenter(pyramid1, 0, Math.toRadians(180), 0);
+
+        final Pyramid pyramid = new Pyramid();
+        t.rotate(pyramid, 0, Math.toRadians(90), 0);
+        t.move(pyramid, -2, 0, 0);
+
+        final Sector sector = new Sector(15);
+        t.move(sector, 3, 0, 0);
+
+        return new Renderable[]{cube, cylinder, pyramid1, pyramid, sector};
+    }
+}
@@ -0,0 +1,206 @@
+package model;
+
+import transforms.Col;
+
+/**
+ * An instance of class {@code AbstractTexture2D}. Mipmapped texture with
+ * addressing, filtering and {@link TextureLayout} of texels, independent of
+ * the storage of texels. Every level has half width and height of the
+ * previous one down to 1x1.
+ * <br><br>
+ * Subclasses only read one texel of one level by {@link #fetch(int, int)}.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public abstract class AbstractTexture2D implements Texture2D {
+
+    protected final int width;
+    protected final int height;
+    protected final TextureWrap wrap;
+    protected final TextureLayout layout;
+    private final int[] levelWidths;
+    private final int[] levelHeights;
+    // parametry TextureLayout.index pro každou úroveň
+    private final int[] levelIndexParameters;
+    // masky pro rozměry mocniny dvou, jinak -1
+    private final int maskX;
+    private final int maskY;
+
+    /**
+     * @param width  width of full resolution level
+     * @param height height of full resolution level
+     * @param wrap   addressing of coordinates outside of texture
+     * @param layout order of texels in memory
+     */
+    protected AbstractTexture2D(int width, int height, TextureWrap wrap, TextureLayout layout) {
+        this.width = width;
+        this.height = height;
+        this.wrap = wrap;
+        this.layout = layout;
+        this.maskX = Integer.bitCount(width) == 1 ? width - 1 : -1;
+        this.maskY = Integer.bitCount(height) == 1 ? height - 1 : -1;
+
+        final int count = 1 + 31 - Integer.numberOfLeadingZeros(Math.max(width, height));
+        levelWidths = new int[count];
+        levelHeights = new int[count];
+        levelIndexParameters = new int[count];
+        levelWidths[0] = width;
+        levelHeights[0] = height;
+        for (int level = 1; level < count; level++) {
+            levelWidths[level] = Math.max(1, levelWidths[level - 1] / 2);
+            levelHeights[level] = Math.max(1, levelHeights[level - 1] / 2);
+        }
+        for (int level = 0; level < count; level++) {
+            levelIndexParameters[level] = layout.indexParameter(levelWidths[level], levelHeights[level]);
+        }
+    }
+
+    /**
+     * Reads texel from storage
+     *
+     * @param level mip level
+     * @param index index of texel in {@link TextureLayout} of the level
+     * @return packed ARGB
+     */
+    protected abstract int fetch(int level, int index);
+
+    /**
+     * @return number of mip levels including full resolution
+     */
+    public int getLevels() {
+        return levelWidths.length;
+    }
+
+    public int getLevelWidth(int level) {
+        return levelWidths[level];
+    }
+
+    public int getLevelHeight(int level) {
+        return levelHeights[level];
+    }
+
+    /**
+     * @param level mip level
+     * @return number of texels stored for the level, including padding of layout
+     */
+    public int getLevelSize(int level) {
+        return layout.size(levelWidths[level], levelHeights[level]);
+    }
+
+    public TextureLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public Col getColor(int x, int y) {
+        return new Col(getRGB(x, y));
+    }
+
+    @Override
+    public int getRGB(int x, int y) {
+        return fetch(0, layout.index(x, y, levelIndexParameters[0]));
+    }
+
+    @Override
+    public TextureWrap getWrap() {
+        return wrap;
+    }
+
+    @Override
+    public int sample(int x, int y) {
+        return texel(0, x, y);
+    }
+
+    @Override
+    public int sample(double u, double v, double lod, TextureFilter filter) {
+        final int maxLevel = levelWidths.length - 1;
+        if (lod <= 0) {
+            return filter == TextureFilter.NEAREST
+                    ? sample((int) Math.round(u), (int) Math.round(v))
+                    : bilinear(0, u, v);
+        }
+        switch (filter) {
+            case NEAREST:
+                return nearest(Math.min((int) Math.round(lod), maxLevel), u, v);
+            case BILINEAR:
+                return bilinear(Math.min((int) Math.round(lod), maxLevel), u, v);
+            default:
+                final int level = (int) lod;
+                if (level >= maxLevel) {
+                    return bilinear(maxLevel, u, v);
+                }
+                return lerp(bilinear(level, u, v), bilinear(level + 1, u, v), lod - level);
+        }
+    }
+
+    private int nearest(int level, double u, double v) {
+        // střed texelu úrovně 0 leží na celých souřadnicích
+        final double scale = 1d / (1 << level);
+        final int x = (int) Math.round((u + 0.5) * scale - 0.5);
+        final int y = (int) Math.round((v + 0.5) * scale - 0.5);
+        return texel(level, x, y);
+    }
+
+    private int bilinear(int level, double u, double v) {
+        final double scale = 1d / (1 << level);
+        final double x = (u + 0.5) * scale - 0.5;
+        final double y = (v + 0.5) * scale - 0.5;
+        final int x0 = (int) Math.floor(x);
+        final int y0 = (int) Math.floor(y);
+        final double fx = x - x0;
+        final double fy = y - y0;
+        final int top = lerp(texel(level, x0, y0), texel(level, x0 + 1, y0), fx);
+        final int bottom = lerp(texel(level, x0, y0 + 1), texel(level, x0 + 1, y0 + 1), fx);
+        return lerp(top, bottom, fy);
+    }
+
+    private int texel(int level, int x, int y) {
+        final int levelWidth = levelWidths[level];
+        final int levelHeight = levelHeights[level];
+        final int parameter = levelIndexParameters[level];
+        if (wrap == TextureWrap.REPEAT && maskX >= 0 && maskY >= 0) {
+            // rozměry mocniny dvou, modulo je jen maska
+            return fetch(level, layout.index(x & (levelWidth - 1), y & (levelHeight - 1), parameter));
+        }
+        return fetch(level, layout.index(wrap.apply(x, levelWidth), wrap.apply(y, levelHeight), parameter));
+    }
+
+    /**
+     * Linear interpolation of all four channels of packed colors
+     *
+     * @param c0 color for t = 0
+     * @param c1 color for t = 1
+     * @param t  parameter in interval {@code <0;1>}
+     * @return packed color
+     */
+    private static int lerp(int c0, int c1, double t) {
+        final int weight = (int) (t * 256);
+        int color = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            final int a = (c0 >>> shift) & 0xFF;
+            final int b = (c1 >>> shift) & 0xFF;
+            color |= (a + (((b - a) * weight) >> 8)) << shift;
+        }
+        return color;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        long size = 0;
+        for (int level = 0; level < levelWidths.length; level++) {
+            size += 4L * getLevelSize(level);
+        }
+        return size;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+}
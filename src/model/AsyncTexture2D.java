@@ -0,0 +1,192 @@
+package model;
+
+import transforms.Col;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * An instance of class {@code AsyncTexture2D}. Texture decoded in background.
+ * Until the image is decoded, the texture samples a 1x1 placeholder, then the
+ * decoded texture is swapped in atomically. Renderer sees either the whole
+ * placeholder or the whole decoded texture, never a mix.
+ * <br><br>
+ * Width and height are read from the image header when the texture is
+ * created, so texture coordinates computed from them stay valid after the
+ * swap. Decoding runs on virtual threads, or on daemon threads when the
+ * runtime has no virtual threads.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class AsyncTexture2D implements Texture2D {
+
+    private static final int PLACEHOLDER_COLOR = 0xFF808080;
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private final String file;
+    private final int width;
+    private final int height;
+    private final Texture2D placeholder;
+    private final CompletableFuture<Texture2D> loaded;
+    private volatile Texture2D current;
+
+    /**
+     * Starts decoding by {@link DefaultTexture2D}
+     *
+     * @param file resource path of image
+     */
+    public AsyncTexture2D(String file) {
+        this(file, DefaultTexture2D::new);
+    }
+
+    /**
+     * @param file   resource path of image
+     * @param loader creates texture from resource path, called in background
+     * @throws RuntimeException file does not exist or its header cannot be read
+     */
+    public AsyncTexture2D(String file, Function<String, Texture2D> loader) {
+        this(file, readSize(file), loader);
+    }
+
+    /**
+     * Creates texture with already known dimensions, does no I/O in calling
+     * thread
+     *
+     * @param file   resource path of image
+     * @param size   width and height read by {@link #readSize(String)}
+     * @param loader creates texture from resource path, called in background
+     */
+    AsyncTexture2D(String file, int[] size, Function<String, Texture2D> loader) {
+        this.file = file;
+        final BufferedImage pixel = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        pixel.setRGB(0, 0, PLACEHOLDER_COLOR);
+        this.placeholder = new DefaultTexture2D(pixel, TextureWrap.CLAMP);
+        this.current = placeholder;
+        this.width = size[0];
+        this.height = size[1];
+
+        // textura se vymění dřív, než doběhnou akce navázané na getLoaded()
+        this.loaded = CompletableFuture.supplyAsync(() -> loader.apply(file), EXECUTOR)
+                .thenApply(texture -> {
+                    current = texture;
+                    return texture;
+                });
+        loaded.exceptionally(e -> {
+            // zůstane zástupná textura
+            e.printStackTrace();
+            return null;
+        });
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            // virtuální vlákna jsou až od Javy 21
+            final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "texture-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Reads dimensions of image without decoding its pixels
+     *
+     * @param file resource path of image
+     * @return width and height
+     * @throws RuntimeException file does not exist or its header cannot be read
+     */
+    static int[] readSize(String file) {
+        final InputStream is = AsyncTexture2D.class.getClassLoader().getResourceAsStream(file);
+        if (is == null) {
+            throw new RuntimeException("File not found: " + file);
+        }
+
+        try (is; ImageInputStream iis = ImageIO.createImageInputStream(is)) {
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                throw new RuntimeException("Unknown image format: " + file);
+            }
+            final ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Unable to read image header");
+        }
+    }
+
+    /**
+     * @return future completed with decoded texture after it was swapped in
+     */
+    public CompletableFuture<Texture2D> getLoaded() {
+        return loaded;
+    }
+
+    public boolean isLoaded() {
+        return current != placeholder;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    @Override
+    public Col getColor(int x, int y) {
+        return new Col(getRGB(x, y));
+    }
+
+    @Override
+    public int getRGB(int x, int y) {
+        final Texture2D texture = current;
+        return texture == placeholder ? PLACEHOLDER_COLOR : texture.getRGB(x, y);
+    }
+
+    @Override
+    public TextureWrap getWrap() {
+        return current.getWrap();
+    }
+
+    @Override
+    public int sample(int x, int y) {
+        return current.sample(x, y);
+    }
+
+    @Override
+    public int sample(double u, double v, double lod, TextureFilter filter) {
+        return current.sample(u, v, lod, filter);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return current.getSizeInBytes();
+    }
+}
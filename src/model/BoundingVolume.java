@@ -0,0 +1,118 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Instance of class {@code BoundingVolume}. Axis aligned bounding box and
+ * bounding sphere of vertices in model coordinates. The sphere is centered in
+ * the center of the box.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public final class BoundingVolume {
+
+    private final double minX, minY, minZ;
+    private final double maxX, maxY, maxZ;
+    private final double radius;
+
+    public BoundingVolume(double minX, double minY, double minZ,
+                          double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        final double dx = maxX - minX;
+        final double dy = maxY - minY;
+        final double dz = maxZ - minZ;
+        this.radius = Math.sqrt(dx * dx + dy * dy + dz * dz) / 2;
+    }
+
+    /**
+     * Bounding volume of vertices
+     *
+     * @param vertices list of vertices
+     * @return bounding volume or {@code null} for empty list
+     */
+    public static BoundingVolume of(List<Vertex> vertices) {
+        if (vertices.isEmpty()) {
+            return null;
+        }
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        if (vertices instanceof VertexArray) {
+            // bez vytváření objektů Vertex
+            final VertexArray array = (VertexArray) vertices;
+            for (int i = 0; i < array.size(); i++) {
+                final double x = array.getX(i), y = array.getY(i), z = array.getZ(i);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                maxZ = Math.max(maxZ, z);
+            }
+        } else {
+            for (Vertex v : vertices) {
+                minX = Math.min(minX, v.getX());
+                minY = Math.min(minY, v.getY());
+                minZ = Math.min(minZ, v.getZ());
+                maxX = Math.max(maxX, v.getX());
+                maxY = Math.max(maxY, v.getY());
+                maxZ = Math.max(maxZ, v.getZ());
+            }
+        }
+        return new BoundingVolume(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMinZ() {
+        return minZ;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    public double getMaxZ() {
+        return maxZ;
+    }
+
+    public double getCenterX() {
+        return (minX + maxX) / 2;
+    }
+
+    public double getCenterY() {
+        return (minY + maxY) / 2;
+    }
+
+    public double getCenterZ() {
+        return (minZ + maxZ) / 2;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingVolume{" +
+                "min=(" + minX + ", " + minY + ", " + minZ + ")" +
+                ", max=(" + maxX + ", " + maxY + ", " + maxZ + ")" +
+                ", radius=" + radius +
+                '}';
+    }
+}
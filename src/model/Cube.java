@@ -36,21 +36,26 @@ public class Cube extends Solid implements Transformable {
         final double r = Math.toRadians(90);
         t.rotate(sq2, 0, r, 0);
         t.move(sq2, 1, 0, 1);
+        t.bake(sq2);
         this.vertexBuffer.addAll(sq2.vertexBuffer);
 
         t.rotate(sq3, 0, -r, 0);
         t.move(sq3, -1, 0, 1);
+        t.bake(sq3);
         this.vertexBuffer.addAll(sq3.vertexBuffer);
 
         t.rotate(sq4, r, 0, 0);
         t.move(sq4, 0, 1, 1);
+        t.bake(sq4);
         this.vertexBuffer.addAll(sq4.vertexBuffer);
 
         t.rotate(sq5, -r, 0, 0);
         t.move(sq5, 0, -1, 1);
+        t.bake(sq5);
         this.vertexBuffer.addAll(sq5.vertexBuffer);
 
         t.move(sq6, 0, 0, 2);
+        t.bake(sq6);
         this.vertexBuffer.addAll(sq6.vertexBuffer);
 
         for (int i = 0; i < getVertices().size(); i++) {
@@ -63,6 +68,9 @@ public class Cube extends Solid implements Transformable {
         this.parts.add(new Part(Topology.TRIANGLE_FAN, 16, 2));
         this.parts.add(new Part(Topology.TRIANGLE_FAN, 20, 2));
 
+        // uzavřené těleso, zadní stěny se nevykreslují
+        orientTrianglesOutward();
+        setCullMode(CullMode.CW);
     }
 
     @Override
@@ -0,0 +1,25 @@
+package model;
+
+/**
+ * Instance of enum {@code CullMode} determines which triangles are skipped
+ * by renderer according to their winding on the screen.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public enum CullMode {
+
+    /**
+     * All triangles are drawn
+     */
+    NONE,
+    /**
+     * Triangles with clockwise winding on the screen are skipped
+     */
+    CW,
+    /**
+     * Triangles with counterclockwise winding on the screen are skipped
+     */
+    CCW
+
+}
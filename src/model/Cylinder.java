@@ -60,6 +60,7 @@ public class Cylinder extends Solid implements Transformable {
      * @param wrap   color of wrap
      */
     public Cylinder(int count, int length, Color base, Color wrap) {
+        super(true);
         final Transformer t = new Transformer();
 
         final Circle circle1 = new Circle(count, wrap);
@@ -67,6 +68,7 @@ public class Cylinder extends Solid implements Transformable {
 
         final Circle circle2 = new Circle(count, wrap);
         t.move(circle2, 0, 0, length);
+        t.bake(circle2);
         this.vertexBuffer.addAll(circle2.getVertices());
 
         this.parts.add(new Part(Topology.TRIANGLE_STRIP, 0, count * 2));
@@ -78,7 +80,12 @@ public class Cylinder extends Solid implements Transformable {
         final Circle baseCircle = new Circle(count, base);
         createBase(count, baseCircle);
         t.move(baseCircle, 0, 0, length);
+        t.bake(baseCircle);
         createBase(count, baseCircle);
+
+        // uzavřené těleso, zadní stěny se nevykreslují
+        orientTrianglesOutward();
+        setCullMode(CullMode.CW);
     }
 
 
@@ -88,7 +95,7 @@ public class Cylinder extends Solid implements Transformable {
 
         final int vbSize = vertexBuffer.size();
         for (int i = 0; i < circle.indexBuffer.size(); i++) {
-            addIndices(vbSize + circle.indexBuffer.get(i));
+            addIndices(vbSize + circle.indexBuffer.getInt(i));
         }
         this.vertexBuffer.addAll(circle.vertexBuffer);
 
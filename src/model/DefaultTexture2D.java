@@ -8,24 +8,106 @@ import java.io.IOException;
 import java.io.InputStream;
 
 /**
- * An instance of class {@code DefaultTexture2D}
+ * An instance of class {@code DefaultTexture2D}. Texels of decoded image are
+ * copied once to an {@code int} array, sampling then reads the array without
+ * creating any objects.
+ * <br><br>
+ * Chain of mip levels is built at load time, every level has half width and
+ * height of the previous one down to 1x1. Minified surfaces then read a small
+ * level which fits in the cache. Sampling is implemented in
+ * {@link AbstractTexture2D}.
+ * <br><br>
+ * Texels of all levels are stored in {@link TextureLayout}, converted once at
+ * load time.
  *
  * @author Stanislav Čapek
- * @version 1.0
+ * @version 1.5
  */
-public class DefaultTexture2D implements Texture2D {
+public class DefaultTexture2D extends AbstractTexture2D {
 
-    private BufferedImage img;
+    private final int[][] levels;
 
     public DefaultTexture2D(String file) {
+        this(file, TextureWrap.CLAMP);
+    }
+
+    /**
+     * @param file resource path of image
+     * @param wrap addressing of coordinates outside of texture
+     */
+    public DefaultTexture2D(String file, TextureWrap wrap) {
+        this(read(file), wrap);
+    }
+
+    /**
+     * @param file   resource path of image
+     * @param wrap   addressing of coordinates outside of texture
+     * @param layout order of texels in memory
+     */
+    public DefaultTexture2D(String file, TextureWrap wrap, TextureLayout layout) {
+        this(read(file), wrap, layout);
+    }
 
-        final InputStream is = this.getClass().getClassLoader().getResourceAsStream(file);
+    /**
+     * @param img  image, its texels are copied
+     * @param wrap addressing of coordinates outside of texture
+     */
+    public DefaultTexture2D(BufferedImage img, TextureWrap wrap) {
+        this(img, wrap, TextureLayout.LINEAR);
+    }
+
+    /**
+     * @param img    image, its texels are copied
+     * @param wrap   addressing of coordinates outside of texture
+     * @param layout order of texels in memory
+     */
+    public DefaultTexture2D(BufferedImage img, TextureWrap wrap, TextureLayout layout) {
+        super(img.getWidth(), img.getHeight(), wrap, layout);
+        levels = new int[getLevels()][];
+        int[] linear = img.getRGB(0, 0, width, height, null, 0, width);
+        levels[0] = layout.fromLinear(linear, width, height);
+        for (int level = 1; level < levels.length; level++) {
+            // úrovně se zmenšují z řádkového pole, přeskládá se až výsledek
+            linear = downsample(linear, getLevelWidth(level - 1), getLevelHeight(level - 1),
+                    getLevelWidth(level), getLevelHeight(level));
+            levels[level] = layout.fromLinear(linear, getLevelWidth(level), getLevelHeight(level));
+        }
+    }
+
+    /**
+     * Next mip level, every texel is average of 2x2 texels of the source
+     * level. Texels over the edge of odd size are taken from the edge.
+     */
+    private static int[] downsample(int[] source, int sourceWidth, int sourceHeight, int width, int height) {
+        final int[] result = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            final int y0 = Math.min(2 * y, sourceHeight - 1) * sourceWidth;
+            final int y1 = Math.min(2 * y + 1, sourceHeight - 1) * sourceWidth;
+            for (int x = 0; x < width; x++) {
+                final int x0 = Math.min(2 * x, sourceWidth - 1);
+                final int x1 = Math.min(2 * x + 1, sourceWidth - 1);
+                final int c00 = source[y0 + x0], c01 = source[y0 + x1];
+                final int c10 = source[y1 + x0], c11 = source[y1 + x1];
+                int color = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    final int sum = ((c00 >>> shift) & 0xFF) + ((c01 >>> shift) & 0xFF)
+                            + ((c10 >>> shift) & 0xFF) + ((c11 >>> shift) & 0xFF);
+                    color |= ((sum + 2) >> 2) << shift;
+                }
+                result[y * width + x] = color;
+            }
+        }
+        return result;
+    }
+
+    private static BufferedImage read(String file) {
+        final InputStream is = DefaultTexture2D.class.getClassLoader().getResourceAsStream(file);
         if (is == null) {
             throw new RuntimeException("File not found: " + file);
         }
 
-        try {
-            img = ImageIO.read(is);
+        try (is) {
+            return ImageIO.read(is);
         } catch (IOException e) {
             e.printStackTrace();
             throw new RuntimeException("Unable to read image");
@@ -57,17 +139,15 @@ public class DefaultTexture2D implements Texture2D {
     }
 
     @Override
-    public Col getColor(int x, int y) {
-        return new Col(img.getRGB(x, y));
+    protected int fetch(int level, int index) {
+        return levels[level][index];
     }
 
-    @Override
-    public int getWidth() {
-        return img.getWidth();
-    }
-
-    @Override
-    public int getHeight() {
-        return img.getHeight();
+    /**
+     * @param level mip level
+     * @return texels of the level in {@link #getLayout()}, not a copy
+     */
+    int[] getLevelTexels(int level) {
+        return levels[level];
     }
 }
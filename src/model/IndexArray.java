@@ -0,0 +1,134 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Instance of class {@code IndexArray}. Index buffer stored in primitive
+ * {@code int} array. Indices are not boxed into {@link Integer} objects, so
+ * one index takes 4 bytes and renderers read it by {@link #getInt(int)}
+ * without unboxing.
+ * <br><br>
+ * The class is still a {@code List<Integer>} for code which works with index
+ * buffer as a list.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class IndexArray extends AbstractList<Integer> implements RandomAccess {
+
+    private int[] indices;
+    private int size;
+
+    public IndexArray() {
+        this(16);
+    }
+
+    /**
+     * @param capacity initial number of indices
+     */
+    public IndexArray(int capacity) {
+        indices = new int[capacity];
+    }
+
+    /**
+     * Index array with given list of indices. If the list already is
+     * {@code IndexArray}, it is returned, otherwise its indices are copied.
+     *
+     * @param indices list of indices
+     * @return index array
+     */
+    public static IndexArray of(List<Integer> indices) {
+        if (indices instanceof IndexArray) {
+            return (IndexArray) indices;
+        }
+        final IndexArray array = new IndexArray(indices.size());
+        for (Integer index : indices) {
+            array.addInt(index);
+        }
+        return array;
+    }
+
+    public int getInt(int index) {
+        checkIndex(index, size);
+        return indices[index];
+    }
+
+    public void setInt(int index, int value) {
+        checkIndex(index, size);
+        indices[index] = value;
+    }
+
+    public void addInt(int value) {
+        ensureCapacity(size + 1);
+        indices[size++] = value;
+        modCount++;
+    }
+
+    /**
+     * Adds all indices to the end of array
+     *
+     * @param values indices
+     */
+    public void addInts(int... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, indices, size, values.length);
+        size += values.length;
+        modCount++;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        final int old = getInt(index);
+        indices[index] = value;
+        return old;
+    }
+
+    @Override
+    public void add(int index, Integer value) {
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(indices, index, indices, index + 1, size - index);
+        indices[index] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        final int old = getInt(index);
+        removeRange(index, index + 1);
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        System.arraycopy(indices, toIndex, indices, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(capacity, indices.length * 2));
+        }
+    }
+
+    private static void checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + length);
+        }
+    }
+}
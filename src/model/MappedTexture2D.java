@@ -0,0 +1,256 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An instance of class {@code MappedTexture2D}. Texture whose texels are read
+ * directly from memory mapped cache file, the image is not decoded again.
+ * <br><br>
+ * Cache file is written next to the image (or to temporary directory, if the
+ * image is not a plain file) when the image is decoded for the first time by
+ * {@link #load(String)}. It holds packed ARGB texels of all mip levels in
+ * little endian order after this header:
+ * <pre>
+ * int  magic            "TEXC"
+ * int  version
+ * long lastModified     of the image
+ * long length           of the image
+ * int  width
+ * int  height
+ * int  layout           ordinal of {@link TextureLayout}
+ * int  levels           number of mip levels
+ * </pre>
+ * When the image has changed or the file holds another layout than requested,
+ * the cache file is stale and it is replaced.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class MappedTexture2D extends AbstractTexture2D {
+
+    /**
+     * Suffix of cache file
+     */
+    public static final String SUFFIX = ".texcache";
+    private static final int MAGIC = 0x43584554; // "TEXC" v little endian
+    // verze 2: řádky dlaždic TextureLayout.TILED zarovnané na lichý počet
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 40;
+
+    private final IntBuffer[] levels;
+
+    private MappedTexture2D(int width, int height, TextureWrap wrap, TextureLayout layout) {
+        super(width, height, wrap, layout);
+        levels = new IntBuffer[getLevels()];
+    }
+
+    /**
+     * Loads texture from cache file, or decodes the image and writes the
+     * cache file for next time.
+     *
+     * @param file resource path of image
+     * @return texture
+     */
+    public static Texture2D load(String file) {
+        return load(file, TextureWrap.CLAMP);
+    }
+
+    /**
+     * @param file resource path of image
+     * @param wrap addressing of coordinates outside of texture
+     * @return texture in {@link TextureLayout#LINEAR}
+     */
+    public static Texture2D load(String file, TextureWrap wrap) {
+        return load(file, wrap, TextureLayout.LINEAR);
+    }
+
+    /**
+     * @param file   resource path of image
+     * @param wrap   addressing of coordinates outside of texture
+     * @param layout order of texels in memory
+     * @return mapped texture or decoded {@link DefaultTexture2D} if the cache
+     * file was missing or stale
+     */
+    public static Texture2D load(String file, TextureWrap wrap, TextureLayout layout) {
+        final URL url = MappedTexture2D.class.getClassLoader().getResource(file);
+        if (url == null) {
+            throw new RuntimeException("File not found: " + file);
+        }
+        final long[] source = readSourceInfo(url);
+        final Path cache = getCachePath(url, file);
+
+        final MappedTexture2D mapped = open(cache, source[0], source[1], wrap, layout);
+        if (mapped != null) {
+            return mapped;
+        }
+        final DefaultTexture2D texture = new DefaultTexture2D(file, wrap, layout);
+        write(cache, texture, source[0], source[1]);
+        return texture;
+    }
+
+    /**
+     * Maps cache file
+     *
+     * @param cache        path of cache file
+     * @param lastModified last modification of the image
+     * @param length       length of the image
+     * @param wrap         addressing of coordinates outside of texture
+     * @param layout       requested order of texels
+     * @return texture or {@code null} if the file is missing, stale, damaged
+     * or in another layout
+     */
+    static MappedTexture2D open(Path cache, long lastModified, long length, TextureWrap wrap,
+                                TextureLayout layout) {
+        if (!Files.isRegularFile(cache)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return null;
+            }
+            // mapování platí i po zavření kanálu
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != lastModified || buffer.getLong() != length) {
+                return null;
+            }
+            final int width = buffer.getInt();
+            final int height = buffer.getInt();
+            final int storedLayout = buffer.getInt();
+            final int levelCount = buffer.getInt();
+            if (width < 1 || height < 1 || storedLayout != layout.ordinal()) {
+                return null;
+            }
+
+            final MappedTexture2D texture = new MappedTexture2D(width, height, wrap, layout);
+            if (levelCount != texture.getLevels()
+                    || HEADER_BYTES + texture.getSizeInBytes() != channel.size()) {
+                return null;
+            }
+            int offset = HEADER_BYTES;
+            for (int level = 0; level < levelCount; level++) {
+                final int bytes = 4 * texture.getLevelSize(level);
+                buffer.limit(offset + bytes).position(offset);
+                texture.levels[level] = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                offset += bytes;
+            }
+            return texture;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Writes cache file of decoded texture. File is written to temporary file
+     * first and then moved, so a damaged file is never mapped. Failure (e.g.
+     * read only directory) is only reported, texture is then decoded again
+     * next time.
+     *
+     * @param cache        path of cache file
+     * @param texture      decoded texture
+     * @param lastModified last modification of the image
+     * @param length       length of the image
+     */
+    static void write(Path cache, DefaultTexture2D texture, long lastModified, long length) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(cache.toAbsolutePath().getParent());
+            tmp = Files.createTempFile(cache.toAbsolutePath().getParent(), "texture", ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putLong(lastModified).putLong(length)
+                        .putInt(texture.getWidth()).putInt(texture.getHeight())
+                        .putInt(texture.getLayout().ordinal()).putInt(texture.getLevels());
+                header.flip();
+                writeFully(channel, header);
+
+                for (int level = 0; level < texture.getLevels(); level++) {
+                    final int[] texels = texture.getLevelTexels(level);
+                    final ByteBuffer data = ByteBuffer.allocate(4 * texels.length).order(ByteOrder.LITTLE_ENDIAN);
+                    data.asIntBuffer().put(texels);
+                    writeFully(channel, data);
+                }
+            }
+            try {
+                Files.move(tmp, cache, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // dočasný soubor se nepodařilo smazat
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Path of cache file, next to the image if it is a plain file, otherwise
+     * in temporary directory
+     */
+    static Path getCachePath(URL url, String file) {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                final Path image = Paths.get(url.toURI());
+                return image.resolveSibling(image.getFileName() + SUFFIX);
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // i InvalidPathException, použije se dočasný adresář
+                e.printStackTrace();
+            }
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "texture-cache",
+                file.replaceAll("[/\\\\:]", "_") + SUFFIX);
+    }
+
+    /**
+     * @return last modification and length of the image
+     */
+    private static long[] readSourceInfo(URL url) {
+        try {
+            if ("file".equals(url.getProtocol())) {
+                final Path path = Paths.get(url.toURI());
+                return new long[]{Files.getLastModifiedTime(path).toMillis(), Files.size(path)};
+            }
+            final URLConnection connection = url.openConnection();
+            final long[] info = {connection.getLastModified(), connection.getContentLengthLong()};
+            try (InputStream ignored = connection.getInputStream()) {
+                // spojení se zavře
+            }
+            return info;
+        } catch (IOException | URISyntaxException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Unable to read image");
+        }
+    }
+
+    @Override
+    protected int fetch(int level, int index) {
+        return levels[level].get(index);
+    }
+}
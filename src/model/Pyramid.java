@@ -81,7 +81,9 @@ public class Pyramid extends Solid implements Transformable {
         );
         addIndices(13, 14, 15);
 
-
+        // uzavřené těleso, zadní stěny se nevykreslují
+        orientTrianglesOutward();
+        setCullMode(CullMode.CW);
     }
 
     /**
@@ -104,6 +106,10 @@ public class Pyramid extends Solid implements Transformable {
         // strany
         parts.add(new Part(Topology.TRIANGLE_FAN, getIndexBuffer().size(), 4));
         addIndices(0, 1, 2, 3, 4, 1);
+
+        // uzavřené těleso, zadní stěny se nevykreslují
+        orientTrianglesOutward();
+        setCullMode(CullMode.CW);
     }
 
     /**
@@ -125,6 +131,9 @@ public class Pyramid extends Solid implements Transformable {
         parts.add(new Part(Topology.TRIANGLE_FAN, getIndexBuffer().size(), 4));
         addIndices(0, 1, 2, 3, 4, 1);
 
+        // uzavřené těleso, zadní stěny se nevykreslují
+        orientTrianglesOutward();
+        setCullMode(CullMode.CW);
     }
 
     @Override
@@ -24,6 +24,36 @@ public interface Renderable {
      */
     List<Integer> getIndexBuffer();
 
+    /**
+     * Object's index buffer as primitive array. Default implementation copies
+     * {@link #getIndexBuffer()} unless it already is {@link IndexArray}.
+     *
+     * @return index buffer
+     */
+    default IndexArray getIndexArray() {
+        return IndexArray.of(getIndexBuffer());
+    }
+
+    /**
+     * Bounding volume of vertex buffer in model coordinates. Renderer skips
+     * objects whose volume lies outside of view frustum.
+     *
+     * @return bounding volume or {@code null} if it is not known
+     */
+    default BoundingVolume getBounds() {
+        return null;
+    }
+
+    /**
+     * Winding of triangles which are not drawn. Closed objects with
+     * consistent winding can skip their back faces.
+     *
+     * @return cull mode, {@link CullMode#NONE} by default
+     */
+    default CullMode getCullMode() {
+        return CullMode.NONE;
+    }
+
     /**
      * Object's topology
      *
@@ -97,7 +97,10 @@ public class Sector extends Solid implements Transformable {
         }
 
         final int vbSize = getVertices().size();
-        surface.getIndexBuffer().forEach(integer -> addIndices(vbSize + integer));
+        final IndexArray surfaceIndices = surface.getIndexArray();
+        for (int i = 0; i < surfaceIndices.size(); i++) {
+            addIndices(vbSize + surfaceIndices.getInt(i));
+        }
         vertexBuffer.addAll(surface.vertexBuffer);
     }
 
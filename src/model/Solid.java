@@ -11,9 +11,23 @@ import java.util.List;
  */
 public class Solid implements Renderable {
 
-    protected final List<Vertex> vertexBuffer = new ArrayList<>();
-    protected final List<Integer> indexBuffer = new ArrayList<>();
+    protected final List<Vertex> vertexBuffer;
+    protected final IndexArray indexBuffer = new IndexArray();
     protected final List<Part> parts = new ArrayList<>();
+    private CullMode cullMode = CullMode.NONE;
+    private BoundingVolume bounds;
+
+    public Solid() {
+        this(false);
+    }
+
+    /**
+     * @param packed {@code true} stores vertices in {@link VertexArray}, suitable for
+     *               large meshes
+     */
+    protected Solid(boolean packed) {
+        this.vertexBuffer = packed ? new VertexArray() : new ArrayList<>();
+    }
 
     @Override
     public List<Vertex> getVertexBuffer() {
@@ -25,16 +39,141 @@ public class Solid implements Renderable {
         return indexBuffer;
     }
 
+    @Override
+    public IndexArray getIndexArray() {
+        return indexBuffer;
+    }
+
     @Override
     public List<Part> getParts() {
         return parts;
     }
 
+    /**
+     * Bounding volume is computed at first use and kept until
+     * {@link #invalidateBounds()} is called.
+     *
+     * @return bounding volume of vertex buffer
+     */
+    @Override
+    public BoundingVolume getBounds() {
+        if (bounds == null) {
+            bounds = BoundingVolume.of(vertexBuffer);
+        }
+        return bounds;
+    }
+
+    /**
+     * Has to be called after vertices were changed.
+     */
+    public void invalidateBounds() {
+        bounds = null;
+    }
+
+    @Override
+    public CullMode getCullMode() {
+        return cullMode;
+    }
+
+    public void setCullMode(CullMode cullMode) {
+        this.cullMode = cullMode;
+    }
+
     protected final void addVertices(Vertex... vertices) {
         vertexBuffer.addAll(List.of(vertices));
+        invalidateBounds();
+    }
+
+    protected final void addIndices(int... indices) {
+        indexBuffer.addInts(indices);
+    }
+
+    /**
+     * Reorders indices so that triangles of every part are counterclockwise
+     * seen from outside of the solid, as expected by {@link CullMode#CW}.
+     * Winding is decided from vertex positions, so it does not depend on how
+     * the parts were rotated. The solid has to be convex (center of its
+     * bounding box lies inside) and all triangles of one part have to face
+     * the same side.
+     */
+    protected final void orientTrianglesOutward() {
+        final BoundingVolume volume = getBounds();
+        if (volume == null) {
+            return;
+        }
+        final double cx = volume.getCenterX(), cy = volume.getCenterY(), cz = volume.getCenterZ();
+        for (Part part : parts) {
+            final int start = part.getIndex();
+            final int count = part.getCount();
+            double facing = 0;
+            switch (part.getType()) {
+                case TRIANGLES:
+                    for (int index = start; index < start + count * 3; index += 3) {
+                        facing += facing(index, index + 1, index + 2, cx, cy, cz);
+                    }
+                    if (facing < 0) {
+                        for (int index = start; index < start + count * 3; index += 3) {
+                            swap(index + 1, index + 2);
+                        }
+                    }
+                    break;
+                case TRIANGLE_STRIP:
+                    for (int index = start; index < start + count; index++) {
+                        // každý druhý trojúhelník pásu má opačné pořadí vrcholů
+                        facing += ((index - start) & 1) == 0
+                                ? facing(index, index + 1, index + 2, cx, cy, cz)
+                                : facing(index + 1, index, index + 2, cx, cy, cz);
+                    }
+                    if (facing < 0) {
+                        if ((count & 1) == 0) {
+                            // sudý počet trojúhelníků, otočí se prohozením dvojic indexů
+                            for (int index = start; index < start + count + 2; index += 2) {
+                                swap(index, index + 1);
+                            }
+                        } else {
+                            // lichý počet trojúhelníků, otočí se obrácením pořadí indexů
+                            for (int i = start, j = start + count + 1; i < j; i++, j--) {
+                                swap(i, j);
+                            }
+                        }
+                    }
+                    break;
+                case TRIANGLE_FAN:
+                    for (int index = start; index < start + count; index++) {
+                        facing += facing(start, index + 1, index + 2, cx, cy, cz);
+                    }
+                    if (facing < 0) {
+                        for (int i = start + 1, j = start + count + 1; i < j; i++, j--) {
+                            swap(i, j);
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return positive if triangle given by positions in index buffer is
+     * counterclockwise seen from outside, i.e. its normal points away from
+     * the center
+     */
+    private double facing(int ia, int ib, int ic, double cx, double cy, double cz) {
+        final Vertex a = vertexBuffer.get(indexBuffer.getInt(ia));
+        final Vertex b = vertexBuffer.get(indexBuffer.getInt(ib));
+        final Vertex c = vertexBuffer.get(indexBuffer.getInt(ic));
+        final double abx = b.getX() - a.getX(), aby = b.getY() - a.getY(), abz = b.getZ() - a.getZ();
+        final double acx = c.getX() - a.getX(), acy = c.getY() - a.getY(), acz = c.getZ() - a.getZ();
+        final double nx = aby * acz - abz * acy;
+        final double ny = abz * acx - abx * acz;
+        final double nz = abx * acy - aby * acx;
+        return nx * (a.getX() - cx) + ny * (a.getY() - cy) + nz * (a.getZ() - cz);
     }
 
-    protected final void addIndices(Integer... indices) {
-        indexBuffer.addAll(List.of(indices));
+    private void swap(int i, int j) {
+        final int tmp = indexBuffer.getInt(i);
+        indexBuffer.setInt(i, indexBuffer.getInt(j));
+        indexBuffer.setInt(j, tmp);
     }
 }
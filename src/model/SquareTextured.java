@@ -51,7 +51,7 @@ public class SquareTextured extends Solid implements TextureRenderable, Transfor
         );
 
         this.vertexBuffer.addAll(List.of(z2, z1, z3, z0));
-        this.indexBuffer.addAll(List.of(0, 1, 2, 3));
+        addIndices(0, 1, 2, 3);
         this.parts.add(new Part(Topology.TRIANGLE_STRIP, 0, 2));
     }
 
@@ -60,9 +60,15 @@ public class SquareTextured extends Solid implements TextureRenderable, Transfor
         return texture;
     }
 
+    /**
+     * Returns immediately, texture is decoded in background, see
+     * {@link AsyncTexture2D}
+     *
+     * @param file resource path of image
+     */
     @Override
     public void setTexture(String file) {
-        this.texture = new DefaultTexture2D(file);
+        this.texture = TextureCache.getShared().getAsync(file);
     }
 
     @Override
@@ -28,6 +28,7 @@ public class SurfaceBiCubic extends Solid implements Transformable {
      * @param controlPoints 16 points
      */
     public SurfaceBiCubic(Mat4 cubic, int numPoints, Color color, Point3D... controlPoints) {
+        super(true);
         this.color = new Col(color.getRGB());
 
         final Point3D[] points;
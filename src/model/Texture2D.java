@@ -17,7 +17,67 @@ public interface Texture2D {
      */
     Col getColor(int x, int y);
 
+    /**
+     * Color of texel packed as integer, without creating {@link Col}.
+     *
+     * @param x specific pixel in width range
+     * @param y specific pixel in height range
+     * @return packed RGB
+     */
+    default int getRGB(int x, int y) {
+        return getColor(x, y).getRGB();
+    }
+
+    /**
+     * Addressing of coordinates outside of texture used by
+     * {@link #sample(int, int)}
+     *
+     * @return wrap mode, {@link TextureWrap#CLAMP} by default
+     */
+    default TextureWrap getWrap() {
+        return TextureWrap.CLAMP;
+    }
+
+    /**
+     * Packed ARGB color of texel at any coordinates, coordinates outside of
+     * texture are mapped by {@link #getWrap()}. It never throws for out of
+     * range coordinates.
+     *
+     * @param x column, may be outside of texture
+     * @param y row, may be outside of texture
+     * @return packed ARGB
+     */
+    default int sample(int x, int y) {
+        final TextureWrap wrap = getWrap();
+        return getRGB(wrap.apply(x, getWidth()), wrap.apply(y, getHeight()));
+    }
+
+    /**
+     * Filtered color of texture. Texture coordinates are in texels of full
+     * resolution level, level of detail selects mip level (0 is full
+     * resolution, 1 half and so on). Default implementation has no mip levels
+     * and returns the nearest texel.
+     *
+     * @param u      column, may be outside of texture
+     * @param v      row, may be outside of texture
+     * @param lod    level of detail
+     * @param filter filtering of texels
+     * @return packed ARGB
+     */
+    default int sample(double u, double v, double lod, TextureFilter filter) {
+        return sample((int) Math.round(u), (int) Math.round(v));
+    }
+
     int getWidth();
 
     int getHeight();
+
+    /**
+     * Memory taken by texels, used by {@link TextureCache}
+     *
+     * @return size in bytes
+     */
+    default long getSizeInBytes() {
+        return 4L * getWidth() * getHeight();
+    }
 }
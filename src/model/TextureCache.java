@@ -0,0 +1,256 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Instance of class {@code TextureCache}. Registry of decoded textures keyed by
+ * resource path. Objects using the same file share one {@link Texture2D}
+ * instance, so the image is decoded only once.
+ * <br><br>
+ * Total size of cached textures is limited by a budget in bytes. When the
+ * budget is exceeded, the least recently used textures are evicted. A texture
+ * which alone exceeds the budget is still returned, but it is not kept.
+ * <br><br>
+ * {@link #getAsync(String)} returns immediately with {@link AsyncTexture2D},
+ * its size is accounted again when it is decoded. Texture which failed to
+ * decode is removed, so the next request loads it again.
+ *
+ * @author Stanislav Čapek
+ * @version 1.2
+ */
+public class TextureCache {
+
+    /**
+     * Default budget of shared cache, 64 MiB
+     */
+    public static final long DEFAULT_BUDGET = 64L << 20;
+    /**
+     * Default layout of loaded textures, sampling does not depend much on
+     * orientation of texture on the screen
+     */
+    public static final TextureLayout DEFAULT_LAYOUT = TextureLayout.TILED;
+    private static final TextureCache SHARED = new TextureCache(DEFAULT_BUDGET);
+
+    // pořadí podle přístupu, první je nejdéle nepoužitá textura
+    private final Map<String, Texture2D> textures = new LinkedHashMap<>(16, 0.75f, true);
+    // velikost v době započtení, async textura se po dekódování zvětší
+    private final Map<String, Long> sizes = new HashMap<>();
+    private final Function<String, Texture2D> loader;
+    private long budget;
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates cache which loads textures in {@link #DEFAULT_LAYOUT}
+     *
+     * @param budget maximal size of cached textures in bytes
+     */
+    public TextureCache(long budget) {
+        this(budget, DEFAULT_LAYOUT);
+    }
+
+    /**
+     * Creates cache which loads textures by
+     * {@link MappedTexture2D#load(String, TextureWrap, TextureLayout)}
+     *
+     * @param budget maximal size of cached textures in bytes
+     * @param layout order of texels of all loaded textures
+     */
+    public TextureCache(long budget, TextureLayout layout) {
+        this(budget, file -> MappedTexture2D.load(file, TextureWrap.CLAMP, layout));
+    }
+
+    /**
+     * @param budget maximal size of cached textures in bytes
+     * @param loader creates texture from resource path
+     */
+    public TextureCache(long budget, Function<String, Texture2D> loader) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Budget must not be negative: " + budget);
+        }
+        this.budget = budget;
+        this.loader = loader;
+    }
+
+    /**
+     * @return cache shared by the whole application
+     */
+    public static TextureCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns cached texture or loads it.
+     *
+     * @param file resource path of image
+     * @return texture
+     */
+    public synchronized Texture2D get(String file) {
+        final Texture2D cached = textures.get(file);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        final Texture2D texture = loader.apply(file);
+        put(file, texture);
+        return texture;
+    }
+
+    /**
+     * Returns cached texture or starts its loading in background. Loading
+     * texture samples a placeholder until it is decoded.
+     *
+     * @param file resource path of image
+     * @return texture, {@link AsyncTexture2D} if it was not cached
+     */
+    public Texture2D getAsync(String file) {
+        synchronized (this) {
+            final Texture2D cached = textures.get(file);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+        }
+        // hlavička obrázku se čte mimo zámek, ostatní vlákna nečekají na I/O
+        final int[] textureSize = AsyncTexture2D.readSize(file);
+        final AsyncTexture2D texture;
+        synchronized (this) {
+            final Texture2D cached = textures.get(file);
+            if (cached != null) {
+                // jiné vlákno texturu mezitím vložilo
+                hits++;
+                return cached;
+            }
+            misses++;
+            texture = new AsyncTexture2D(file, textureSize, loader);
+            put(file, texture);
+        }
+        texture.getLoaded().whenComplete((loaded, e) -> {
+            if (e != null) {
+                remove(file, texture);
+            } else {
+                resize(file, texture);
+            }
+        });
+        return texture;
+    }
+
+    private void put(String file, Texture2D texture) {
+        final long textureSize = texture.getSizeInBytes();
+        if (textureSize <= budget) {
+            textures.put(file, texture);
+            sizes.put(file, textureSize);
+            size += textureSize;
+            evict(budget);
+        }
+    }
+
+    /**
+     * Accounts new size of decoded texture, if it is still cached
+     */
+    private synchronized void resize(String file, Texture2D texture) {
+        if (textures.get(file) != texture) {
+            return;
+        }
+        final long textureSize = texture.getSizeInBytes();
+        size += textureSize - sizes.put(file, textureSize);
+        if (textureSize > budget) {
+            textures.remove(file);
+            size -= sizes.remove(file);
+            evictions++;
+        }
+        evict(budget);
+    }
+
+    /**
+     * Removes texture, if it is still cached under the file, e.g. after its
+     * loading failed
+     *
+     * @param file    resource path of image
+     * @param texture removed texture
+     */
+    synchronized void remove(String file, Texture2D texture) {
+        if (textures.get(file) != texture) {
+            return;
+        }
+        textures.remove(file);
+        size -= sizes.remove(file);
+    }
+
+    /**
+     * Changes the budget, textures over the new budget are evicted.
+     *
+     * @param budget maximal size of cached textures in bytes
+     */
+    public synchronized void setBudget(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Budget must not be negative: " + budget);
+        }
+        this.budget = budget;
+        evict(budget);
+    }
+
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return size of cached textures in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized int getCount() {
+        return textures.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Removes all textures, counters are kept.
+     */
+    public synchronized void clear() {
+        textures.clear();
+        sizes.clear();
+        size = 0;
+    }
+
+    private void evict(long limit) {
+        final Iterator<String> iterator = textures.keySet().iterator();
+        while (size > limit && iterator.hasNext()) {
+            size -= sizes.remove(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TextureCache{" +
+                "count=" + textures.size() +
+                ", size=" + size +
+                ", budget=" + budget +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+}
@@ -0,0 +1,25 @@
+package model;
+
+/**
+ * Instance of enum {@code TextureFilter} selects how texels of mipmapped
+ * texture are combined into color of one fragment.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public enum TextureFilter {
+
+    /**
+     * Nearest texel of the nearest mip level
+     */
+    NEAREST,
+    /**
+     * Bilinear blend of four texels of the nearest mip level
+     */
+    BILINEAR,
+    /**
+     * Bilinear blend in two neighbouring mip levels blended by level of detail
+     */
+    TRILINEAR
+
+}
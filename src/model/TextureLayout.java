@@ -0,0 +1,164 @@
+package model;
+
+/**
+ * Instance of enum {@code TextureLayout} determines order in which texels are
+ * stored in memory. Texels which are close in both directions of texture lie
+ * close in memory in swizzled layouts, so sampling has similar cache behaviour
+ * regardless of orientation of texture on the screen.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public enum TextureLayout {
+
+    /**
+     * Texels are stored row by row
+     */
+    LINEAR {
+        @Override
+        public int size(int width, int height) {
+            return width * height;
+        }
+
+        @Override
+        public int indexParameter(int width, int height) {
+            return width;
+        }
+
+        @Override
+        public int index(int x, int y, int parameter) {
+            return y * parameter + x;
+        }
+    },
+    /**
+     * Texture is divided into tiles 4x4 stored row by row, texels of a tile
+     * are stored row by row too. Size is rounded up to multiple of 4.
+     * <br><br>
+     * Number of tiles in a row is rounded up to odd number. Otherwise rows of
+     * tiles of power of two texture lie power of two bytes apart, all tiles
+     * of one column fall to the same sets of cache and walking along a column
+     * is as slow as in {@link #LINEAR}.
+     */
+    TILED {
+        @Override
+        public int size(int width, int height) {
+            return indexParameter(width, height) * ((height + 3) >> 2) << 4;
+        }
+
+        @Override
+        public int indexParameter(int width, int height) {
+            // lichý počet dlaždic v řádku
+            return ((width + 3) >> 2) | 1;
+        }
+
+        @Override
+        public int index(int x, int y, int parameter) {
+            return (((y >> 2) * parameter + (x >> 2)) << 4) | ((y & 3) << 2) | (x & 3);
+        }
+    },
+    /**
+     * Z-order curve, bits of coordinates are interleaved. Both sizes are
+     * rounded up to power of two, bits of the longer side above the shorter
+     * one are appended to the end.
+     */
+    MORTON {
+        @Override
+        public int size(int width, int height) {
+            return 1 << (ceilLog2(width) + ceilLog2(height));
+        }
+
+        @Override
+        public int indexParameter(int width, int height) {
+            return Math.min(ceilLog2(width), ceilLog2(height));
+        }
+
+        @Override
+        public int index(int x, int y, int parameter) {
+            final int bits = parameter;
+            final int mask = (1 << bits) - 1;
+            final int low = spread(x & mask) | (spread(y & mask) << 1);
+            // vyšší bity má nejvýše jedna ze souřadnic
+            return low | (((x >> bits) | (y >> bits)) << (2 * bits));
+        }
+    };
+
+    /**
+     * @param width  width of texture
+     * @param height height of texture
+     * @return length of array holding all texels
+     */
+    public abstract int size(int width, int height);
+
+    /**
+     * Value depending only on size of texture, which is needed by
+     * {@link #index(int, int, int)} - width for {@link #LINEAR}, number of
+     * tiles in a row including padding for {@link #TILED} and number of
+     * interleaved bits for {@link #MORTON}. Textures compute it once for every mip level.
+     *
+     * @param width  width of texture
+     * @param height height of texture
+     * @return parameter of index
+     */
+    public abstract int indexParameter(int width, int height);
+
+    /**
+     * @param x         column inside of texture
+     * @param y         row inside of texture
+     * @param parameter value of {@link #indexParameter(int, int)} for size of texture
+     * @return index of texel in array
+     */
+    public abstract int index(int x, int y, int parameter);
+
+    /**
+     * @param x      column inside of texture
+     * @param y      row inside of texture
+     * @param width  width of texture
+     * @param height height of texture
+     * @return index of texel in array
+     */
+    public int index(int x, int y, int width, int height) {
+        return index(x, y, indexParameter(width, height));
+    }
+
+    /**
+     * Reorders texels stored row by row to this layout
+     *
+     * @param linear texels row by row
+     * @param width  width of texture
+     * @param height height of texture
+     * @return texels in this layout, the same array for {@link #LINEAR}
+     */
+    public int[] fromLinear(int[] linear, int width, int height) {
+        if (this == LINEAR) {
+            return linear;
+        }
+        final int[] result = new int[size(width, height)];
+        final int parameter = indexParameter(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                result[index(x, y, parameter)] = linear[y * width + x];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return exponent of the smallest power of two not less than value
+     */
+    private static int ceilLog2(int value) {
+        return 32 - Integer.numberOfLeadingZeros(value - 1);
+    }
+
+    /**
+     * Spreads lower 16 bits so that there is a zero bit between every two
+     */
+    private static int spread(int value) {
+        value &= 0x0000FFFF;
+        value = (value | (value << 8)) & 0x00FF00FF;
+        value = (value | (value << 4)) & 0x0F0F0F0F;
+        value = (value | (value << 2)) & 0x33333333;
+        value = (value | (value << 1)) & 0x55555555;
+        return value;
+    }
+
+}
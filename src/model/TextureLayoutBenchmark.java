@@ -0,0 +1,110 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Instance of class {@code TextureLayoutBenchmark}. Measures sampling of
+ * texture in every {@link TextureLayout} when the texture is walked along
+ * rows, along columns and diagonally, i.e. as drawn on surface rotated by 0°,
+ * 90° and 45°.
+ * <br><br>
+ * Run with {@code java model.TextureLayoutBenchmark [size]}, the texture is
+ * generated, so no resources are needed. Every layout is measured in its own
+ * JVM, so call sites compiled for one layout do not slow down the others.
+ * {@code java model.TextureLayoutBenchmark size LAYOUT} measures only the
+ * given layout in the current JVM.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class TextureLayoutBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private enum Direction {
+        ROWS, COLUMNS, DIAGONAL
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+        if (args.length > 1) {
+            measure(size, TextureLayout.valueOf(args[1]));
+            return;
+        }
+
+        System.out.println("Texture " + size + "x" + size + ", ns per sample");
+        System.out.printf("%-8s %10s %10s %10s%n", "layout", "rows", "columns", "diagonal");
+        final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        for (TextureLayout layout : TextureLayout.values()) {
+            final Process process = new ProcessBuilder(java,
+                    "-cp", System.getProperty("java.class.path"),
+                    TextureLayoutBenchmark.class.getName(), String.valueOf(size), layout.name())
+                    .inheritIO()
+                    .start();
+            if (process.waitFor() != 0) {
+                System.out.println(layout + " failed");
+            }
+        }
+    }
+
+    /**
+     * Measures one layout and prints one row of results
+     */
+    private static void measure(int size, TextureLayout layout) {
+        final BufferedImage img = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                img.setRGB(x, y, 0xFF000000 | (x * 31 + y * 17) & 0xFFFFFF);
+            }
+        }
+        final DefaultTexture2D texture = new DefaultTexture2D(img, TextureWrap.REPEAT, layout);
+
+        final StringBuilder row = new StringBuilder(String.format("%-8s", layout));
+        for (Direction direction : Direction.values()) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                walk(texture, size, direction);
+            }
+            long checksum = 0;
+            final long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                checksum += walk(texture, size, direction);
+            }
+            final long elapsed = System.nanoTime() - start;
+            row.append(String.format(" %10.2f", (double) elapsed / ROUNDS / size / size));
+            if (checksum == 42) {
+                // jen aby JIT výsledek nezahodil
+                row.append('*');
+            }
+        }
+        System.out.println(row);
+    }
+
+    /**
+     * Samples every texel of texture once in given order
+     *
+     * @return sum of samples
+     */
+    private static long walk(Texture2D texture, int size, Direction direction) {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                switch (direction) {
+                    case ROWS:
+                        sum += texture.sample(j, i);
+                        break;
+                    case COLUMNS:
+                        sum += texture.sample(i, j);
+                        break;
+                    default:
+                        // adresování REPEAT zalomí úhlopříčku přes okraj
+                        sum += texture.sample(i + j, j);
+                        break;
+                }
+            }
+        }
+        return sum;
+    }
+}
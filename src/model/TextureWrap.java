@@ -0,0 +1,38 @@
+package model;
+
+/**
+ * Instance of enum {@code TextureWrap} determines how texture coordinates
+ * outside of texture are mapped to texels.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public enum TextureWrap {
+
+    /**
+     * Texture is repeated, coordinate is taken modulo size
+     */
+    REPEAT {
+        @Override
+        public int apply(int coordinate, int size) {
+            return Math.floorMod(coordinate, size);
+        }
+    },
+    /**
+     * Coordinate is clamped to the edge texel
+     */
+    CLAMP {
+        @Override
+        public int apply(int coordinate, int size) {
+            return coordinate < 0 ? 0 : (coordinate >= size ? size - 1 : coordinate);
+        }
+    };
+
+    /**
+     * @param coordinate texel coordinate, may be outside of texture
+     * @param size       width or height of texture
+     * @return coordinate inside of interval {@code <0;size-1>}
+     */
+    public abstract int apply(int coordinate, int size);
+
+}
@@ -0,0 +1,161 @@
+package model;
+
+import transforms.Col;
+import transforms.Point3D;
+import transforms.Vec2D;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Instance of class {@code VertexArray}. Vertex buffer stored as structure of
+ * arrays - positions, colors and texture coordinates of all vertices lie in
+ * parallel primitive arrays. It needs several times less memory than list of
+ * {@link Vertex} objects and renderers can read it sequentially without
+ * creating any objects.
+ * <br><br>
+ * The class is still a {@code List<Vertex>}, method {@link #get(int)} creates
+ * a new {@link Vertex} from the stored values. Homogeneous coordinate
+ * {@code one} of vertex is not stored, it is always 1 for vertices of models.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class VertexArray extends AbstractList<Vertex> implements RandomAccess {
+
+    private double[] positions;
+    private float[] colors;
+    private float[] texCoords;
+    private int size;
+
+    public VertexArray() {
+        this(16);
+    }
+
+    /**
+     * @param capacity initial number of vertices
+     */
+    public VertexArray(int capacity) {
+        positions = new double[4 * capacity];
+        colors = new float[3 * capacity];
+        texCoords = new float[2 * capacity];
+    }
+
+    @Override
+    public Vertex get(int index) {
+        checkIndex(index, size);
+        return new Vertex(
+                new Point3D(getX(index), getY(index), getZ(index), getW(index)),
+                new Col(getR(index), getG(index), getB(index)),
+                new Vec2D(getU(index), getV(index))
+        );
+    }
+
+    @Override
+    public Vertex set(int index, Vertex vertex) {
+        final Vertex old = get(index);
+        store(index, vertex);
+        return old;
+    }
+
+    @Override
+    public void add(int index, Vertex vertex) {
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        if (index < size) {
+            System.arraycopy(positions, 4 * index, positions, 4 * (index + 1), 4 * (size - index));
+            System.arraycopy(colors, 3 * index, colors, 3 * (index + 1), 3 * (size - index));
+            System.arraycopy(texCoords, 2 * index, texCoords, 2 * (index + 1), 2 * (size - index));
+        }
+        size++;
+        modCount++;
+        store(index, vertex);
+    }
+
+    @Override
+    public Vertex remove(int index) {
+        final Vertex old = get(index);
+        removeRange(index, index + 1);
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        final int tail = size - toIndex;
+        System.arraycopy(positions, 4 * toIndex, positions, 4 * fromIndex, 4 * tail);
+        System.arraycopy(colors, 3 * toIndex, colors, 3 * fromIndex, 3 * tail);
+        System.arraycopy(texCoords, 2 * toIndex, texCoords, 2 * fromIndex, 2 * tail);
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public double getX(int index) {
+        return positions[4 * index];
+    }
+
+    public double getY(int index) {
+        return positions[4 * index + 1];
+    }
+
+    public double getZ(int index) {
+        return positions[4 * index + 2];
+    }
+
+    public double getW(int index) {
+        return positions[4 * index + 3];
+    }
+
+    public double getR(int index) {
+        return colors[3 * index];
+    }
+
+    public double getG(int index) {
+        return colors[3 * index + 1];
+    }
+
+    public double getB(int index) {
+        return colors[3 * index + 2];
+    }
+
+    public double getU(int index) {
+        return texCoords[2 * index];
+    }
+
+    public double getV(int index) {
+        return texCoords[2 * index + 1];
+    }
+
+    private void store(int index, Vertex vertex) {
+        positions[4 * index] = vertex.getX();
+        positions[4 * index + 1] = vertex.getY();
+        positions[4 * index + 2] = vertex.getZ();
+        positions[4 * index + 3] = vertex.getW();
+        colors[3 * index] = (float) vertex.getColor().getR();
+        colors[3 * index + 1] = (float) vertex.getColor().getG();
+        colors[3 * index + 2] = (float) vertex.getColor().getB();
+        texCoords[2 * index] = (float) vertex.getU();
+        texCoords[2 * index + 1] = (float) vertex.getV();
+    }
+
+    private void ensureCapacity(int capacity) {
+        final int current = colors.length / 3;
+        if (capacity > current) {
+            final int newCapacity = Math.max(capacity, current * 2);
+            positions = Arrays.copyOf(positions, 4 * newCapacity);
+            colors = Arrays.copyOf(colors, 3 * newCapacity);
+            texCoords = Arrays.copyOf(texCoords, 2 * newCapacity);
+        }
+    }
+
+    private static void checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + length);
+        }
+    }
+}
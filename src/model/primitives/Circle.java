@@ -51,9 +51,9 @@ public class Circle extends Solid implements Transformable {
         }
 
         for (int i = 0; i <= count; i++) {
-            this.indexBuffer.add(i);
+            addIndices(i);
         }
-        this.indexBuffer.add(1);
+        addIndices(1);
 
         this.parts.add(new Part(Topology.TRIANGLE_FAN, 0, count));
     }
@@ -34,7 +34,7 @@ public class Square extends Solid implements Transformable {
         final Vertex z3 = new Vertex(new Point3D(1, -1, 0), new Col(Color.BLUE.getRGB()));
 
         this.vertexBuffer.addAll(List.of(z2, z1, z3, z0));
-        this.indexBuffer.addAll(List.of(0, 1, 2, 3));
+        addIndices(0, 1, 2, 3);
         this.parts.add(new Part(Topology.TRIANGLE_STRIP, 0, 2));
     }
 
@@ -50,7 +50,7 @@ public class Square extends Solid implements Transformable {
         final Vertex z3 = new Vertex(new Point3D(1, -1, 0), new Col(color.getRGB()));
 
         this.vertexBuffer.addAll(List.of(z0, z1, z2, z3));
-        this.indexBuffer.addAll(List.of(0, 1, 2, 2, 3, 0));
+        addIndices(0, 1, 2, 2, 3, 0);
         this.parts.add(new Part(Topology.TRIANGLES, 0, 2));
 
     }
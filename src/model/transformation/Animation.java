@@ -139,6 +139,15 @@ public class Animation {
         }
     }
 
+    /**
+     * Vrátí animovaný objekt
+     *
+     * @return animovaný objekt
+     */
+    Transformable getObjToAnimate() {
+        return objToAnimate;
+    }
+
     /**
      * Přidá animaci do fronty
      *
@@ -0,0 +1,161 @@
+package model.transformation;
+
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Instance třídy {@code AnimationScheduler} posouvá animace ve vlastním vlákně
+ * pevným krokem simulace. Délka kroku se měří pomocí {@link System#nanoTime()},
+ * rychlost animací proto nezávisí na tom, jak často se plátno překresluje.
+ * <br><br>
+ * Každý krok se skládá do rozpracované matice a na konci se zveřejní najednou
+ * s maticí před krokem a časem kroku, viz {@link ModelMatrices}. Renderer pak
+ * v čase snímku dopočítá stav mezi dvěma kroky, viz
+ * {@link TransformableState#getModelMatrixAt(long)}.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class AnimationScheduler {
+
+    /**
+     * Nejvíce kroků, které se dohání po dlouhém výpadku
+     */
+    private static final int MAX_STEPS_PER_UPDATE = 5;
+
+    private final List<Animation> animations = new CopyOnWriteArrayList<>();
+    private final int stepsPerSecond;
+    private final long stepNanos;
+    private volatile boolean paused = true;
+    private volatile Runnable onFinished;
+    private volatile boolean finishedReported;
+    private Thread thread;
+
+    /**
+     * @param stepsPerSecond počet kroků simulace za vteřinu, zároveň počet
+     *                       kroků jedné animace
+     * @throws IllegalArgumentException počet kroků je menší jak 1
+     */
+    public AnimationScheduler(int stepsPerSecond) {
+        if (stepsPerSecond < 1) {
+            throw new IllegalArgumentException("Počet kroků musí být kladné nenulové číslo: " + stepsPerSecond);
+        }
+        this.stepsPerSecond = stepsPerSecond;
+        this.stepNanos = 1_000_000_000L / stepsPerSecond;
+    }
+
+    /**
+     * Přidá animaci
+     *
+     * @param animation nová animace
+     */
+    public void add(Animation animation) {
+        animations.add(animation);
+        finishedReported = false;
+    }
+
+    /**
+     * Odebere všechny animace
+     */
+    public void clear() {
+        animations.clear();
+        finishedReported = false;
+    }
+
+    /**
+     * Nastaví akci, která se zavolá ve vlákně Swingu po dokončení všech animací
+     *
+     * @param onFinished akce po dokončení
+     */
+    public void setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Pozastaví nebo spustí posouvání animací
+     *
+     * @param paused {@code true} pro pozastavení
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Spustí vlákno plánovače
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::run, "animation-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Ukončí vlákno plánovače
+     */
+    public synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            final long now = System.nanoTime();
+            final long delta = now - previous;
+            previous = now;
+
+            if (paused) {
+                accumulator = 0;
+            } else {
+                // po dlouhém výpadku se nedohání celá ztráta
+                accumulator += Math.min(delta, MAX_STEPS_PER_UPDATE * stepNanos);
+                while (accumulator >= stepNanos) {
+                    accumulator -= stepNanos;
+                    // čas, kdy měl krok proběhnout
+                    step(now - accumulator);
+                }
+            }
+            LockSupport.parkNanos(stepNanos - accumulator);
+        }
+    }
+
+    /**
+     * Jeden krok simulace všech animací
+     *
+     * @param stepTime čas kroku podle {@link System#nanoTime()}
+     */
+    private void step(long stepTime) {
+        boolean done = true;
+        for (Animation animation : animations) {
+            final TransformableState state = animation.getObjToAnimate().getTransformableState();
+            // celý krok se skládá mimo zveřejněné matice, renderer vidí
+            // jen dvojici matic před krokem a po něm
+            state.beginStep();
+            try {
+                animation.doAllAnimations(stepsPerSecond);
+            } finally {
+                state.endStep(stepTime, stepNanos);
+            }
+            if (done) {
+                done = animation.isDone();
+            }
+        }
+        final Runnable action = onFinished;
+        if (done && !finishedReported && !animations.isEmpty() && action != null) {
+            finishedReported = true;
+            SwingUtilities.invokeLater(action);
+        }
+    }
+}
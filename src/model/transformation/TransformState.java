@@ -1,5 +1,7 @@
 package model.transformation;
 
+import transforms.Mat4;
+import transforms.Mat4Identity;
 import transforms.Point3D;
 
 /**
@@ -12,6 +14,9 @@ import transforms.Point3D;
 public class TransformState implements TransformableState {
 
     private Point3D center;
+    private volatile ModelMatrices modelMatrices = new ModelMatrices(new Mat4Identity());
+    // rozpracovaná matice kroku animace, jen pro vlákno animací
+    private Mat4 stepMatrix;
     private double scaleX = 1;
     private double scaleY = 1;
     private double scaleZ = 1;
@@ -37,6 +42,38 @@ public class TransformState implements TransformableState {
         this.center = point;
     }
 
+    @Override
+    public Mat4 getModelMatrix() {
+        return stepMatrix != null ? stepMatrix : modelMatrices.getCurrent();
+    }
+
+    @Override
+    public void setModelMatrix(Mat4 modelMatrix) {
+        if (stepMatrix != null) {
+            stepMatrix = modelMatrix;
+        } else {
+            modelMatrices = new ModelMatrices(modelMatrix);
+        }
+    }
+
+    @Override
+    public ModelMatrices getModelMatrices() {
+        return modelMatrices;
+    }
+
+    @Override
+    public void beginStep() {
+        stepMatrix = modelMatrices.getCurrent();
+    }
+
+    @Override
+    public void endStep(long stepTime, long stepNanos) {
+        if (stepMatrix != null) {
+            modelMatrices = new ModelMatrices(modelMatrices.getCurrent(), stepMatrix, stepTime, stepNanos);
+            stepMatrix = null;
+        }
+    }
+
     @Override
     public double getScaleX() {
         return this.scaleX;
@@ -27,5 +27,12 @@ public interface Transformable {
      */
     TransformableState getTransformableState();
 
+    /**
+     * Oznámí objektu, že se změnily jeho vrcholy a uložené ohraničující těleso
+     * už neplatí.
+     */
+    default void invalidateBounds() {
+    }
+
 
 }
@@ -1,5 +1,6 @@
 package model.transformation;
 
+import transforms.Mat4;
 import transforms.Point3D;
 
 /**
@@ -28,6 +29,57 @@ public interface TransformableState {
      */
     void setCenter(Point3D point);
 
+    /**
+     * Vrátí modelovou matici složenou ze všech provedených transformací.
+     * Během kroku animace vrací rozpracovanou matici, volá ji proto jen
+     * vlákno, které objekt transformuje. Renderer čte {@link #getModelMatrices()}.
+     *
+     * @return modelová matice
+     */
+    Mat4 getModelMatrix();
+
+    /**
+     * Nastaví modelovou matici objektu. Mimo krok animace se matice hned
+     * zveřejní a interpolace se vypne, během kroku se jen uloží do
+     * rozpracované matice.
+     *
+     * @param modelMatrix nová modelová matice
+     */
+    void setModelMatrix(Mat4 modelMatrix);
+
+    /**
+     * Vrátí naposledy zveřejněnou dvojici matic před a po kroku animace
+     *
+     * @return dvojice modelových matic
+     */
+    ModelMatrices getModelMatrices();
+
+    /**
+     * Začne krok animace. Transformace až do {@link #endStep(long, long)} se skládají
+     * do rozpracované matice, která není vidět z jiných vláken.
+     */
+    void beginStep();
+
+    /**
+     * Ukončí krok animace a zveřejní najednou matici před krokem a po něm
+     * spolu s časem kroku
+     *
+     * @param stepTime  čas kroku podle {@link System#nanoTime()}
+     * @param stepNanos délka kroku v nanosekundách
+     */
+    void endStep(long stepTime, long stepNanos);
+
+    /**
+     * Modelová matice v čase snímku, interpolovaná mezi předchozí a aktuální
+     * maticí, viz {@link ModelMatrices#interpolate(long)}
+     *
+     * @param time čas snímku podle {@link System#nanoTime()}
+     * @return interpolovaná modelová matice
+     */
+    default Mat4 getModelMatrixAt(long time) {
+        return getModelMatrices().interpolate(time);
+    }
+
     /**
      * Informativní hodnota o velikosti objektu oproti defaultnímu stavu
      *
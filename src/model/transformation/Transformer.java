@@ -4,12 +4,15 @@ import model.Vertex;
 import transforms.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Instance třídy {@code Transformer} představují služebníka pro objekty
  * instance rozhraní {@link Transformable} na kterých dokáže provést základní
  * transformace.
+ * <br><br>
+ * Transformace se skládají do modelové matice v {@link TransformableState},
+ * vrcholy objektu se nemění. Do vrcholů je lze promítnout metodou
+ * {@link #bake(Transformable)}.
  *
  * @author Stanislav Čapek
  * @version 1.0
@@ -25,16 +28,8 @@ public class Transformer {
      * @param z             posun po ose z
      */
     public void move(Transformable transformable, double x, double y, double z) {
-        final List<Vertex> vb = transformable.getVertices();
-        Mat4Transl tran = new Mat4Transl(x, y, z);
-        final List<Vertex> vertexList = vb.stream()
-                .map(vertex -> {
-                    final Point3D point = vertex.getPoint().mul(tran);
-                    return new Vertex(point, vertex.getColor(),vertex.getTexCoord());
-                })
-                .collect(Collectors.toList());
-        vb.clear();
-        vb.addAll(vertexList);
+        final Mat4Transl tran = new Mat4Transl(x, y, z);
+        compose(transformable, tran);
         final TransformableState state = transformable.getTransformableState();
         state.setCenter(state.getCenter().mul(tran));
     }
@@ -48,16 +43,8 @@ public class Transformer {
      * @param gamma         rotace podél Z, v radiánech
      */
     public void rotate(Transformable transformable, double alpha, double beta, double gamma) {
-        final List<Vertex> verticies = transformable.getVertices();
-        Mat4RotXYZ rot = new Mat4RotXYZ(alpha, beta, gamma);
-        final List<Vertex> vertexList = verticies.stream()
-                .map(vertex ->
-                        new Vertex(vertex.getPoint().mul(rot), vertex.getColor(),vertex.getTexCoord())
-                )
-                .collect(Collectors.toList());
-
-        verticies.clear();
-        verticies.addAll(vertexList);
+        final Mat4RotXYZ rot = new Mat4RotXYZ(alpha, beta, gamma);
+        compose(transformable, rot);
         final TransformableState state = transformable.getTransformableState();
         state.setCenter(state.getCenter().mul(rot));
         setupTransformableRotation(transformable, alpha, beta, gamma);
@@ -78,12 +65,7 @@ public class Transformer {
                 .mul(new Mat4Transl(center.opposite()))
                 .mul(new Mat4RotXYZ(alpha, beta, gamma))
                 .mul(new Mat4Transl(center));
-        final List<Vertex> verticies = transformable.getVertices();
-        final List<Vertex> vertexList = verticies.stream()
-                .map(vertex -> new Vertex(vertex.getPoint().mul(rot), vertex.getColor(),vertex.getTexCoord()))
-                .collect(Collectors.toList());
-        verticies.clear();
-        verticies.addAll(vertexList);
+        compose(transformable, rot);
         setupTransformableRotation(transformable, alpha, beta, gamma);
     }
 
@@ -97,14 +79,8 @@ public class Transformer {
      * @param z             škálování podél Z
      */
     public void scale(Transformable transformable, double x, double y, double z) {
-        final List<Vertex> verticies = transformable.getVertices();
-        Mat4Scale scale = new Mat4Scale(x, y, z);
-        final List<Vertex> vertexList = verticies
-                .stream()
-                .map(vertex -> new Vertex(vertex.getPoint().mul(scale), vertex.getColor(),vertex.getTexCoord()))
-                .collect(Collectors.toList());
-        verticies.clear();
-        verticies.addAll(vertexList);
+        final Mat4Scale scale = new Mat4Scale(x, y, z);
+        compose(transformable, scale);
         setupTransformabelScale(transformable, scale);
     }
 
@@ -118,21 +94,47 @@ public class Transformer {
      * @param z             škálování podle Z
      */
     public void scaleByCenter(Transformable transformable, double x, double y, double z) {
-        final List<Vertex> verticies = transformable.getVertices();
         final Vec3D center = new Vec3D(transformable.getTransformableState().getCenter());
         final Mat4Scale scale = new Mat4Scale(x, y, z);
         final Mat4 tranAndScale = new Mat4Identity()
                 .mul(new Mat4Transl(center.opposite()))
                 .mul(scale)
                 .mul(new Mat4Transl(center));
-        final List<Vertex> vertexList = verticies.stream()
-                .map(vertex -> new Vertex(vertex.getPoint().mul(tranAndScale), vertex.getColor(),vertex.getTexCoord()))
-                .collect(Collectors.toList());
-        verticies.clear();
-        verticies.addAll(vertexList);
+        compose(transformable, tranAndScale);
         setupTransformabelScale(transformable, scale);
     }
 
+    /**
+     * Promítne modelovou matici objektu přímo do jeho vrcholů a nastaví ji
+     * na jednotkovou. Vhodné pro objekty skládané z jiných objektů nebo pro
+     * statické objekty, které se už nebudou transformovat.
+     *
+     * @param transformable transformovaný objekt
+     */
+    public void bake(Transformable transformable) {
+        final TransformableState state = transformable.getTransformableState();
+        final Mat4 modelMatrix = state.getModelMatrix();
+        final List<Vertex> vertices = transformable.getVertices();
+        for (int i = 0; i < vertices.size(); i++) {
+            final Vertex vertex = vertices.get(i);
+            vertices.set(i, vertex.withPoint(vertex.getPoint().mul(modelMatrix)));
+        }
+        state.setModelMatrix(new Mat4Identity());
+        transformable.invalidateBounds();
+    }
+
+    /**
+     * Připojí transformaci k modelové matici objektu. Vrcholy objektu
+     * zůstávají beze změny.
+     *
+     * @param transformable transformovaný objekt
+     * @param transformation matice transformace
+     */
+    private void compose(Transformable transformable, Mat4 transformation) {
+        final TransformableState state = transformable.getTransformableState();
+        state.setModelMatrix(state.getModelMatrix().mul(transformation));
+    }
+
     /**
      * Naství nové hodnoty objektu po škálování
      *
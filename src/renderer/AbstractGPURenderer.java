@@ -1,11 +1,20 @@
 package renderer;
 
+import model.BoundingVolume;
+import model.CullMode;
+import model.IndexArray;
+import model.Part;
+import model.Renderable;
 import model.Vertex;
+import model.transformation.Transformable;
+import model.transformation.TransformableState;
 import transforms.*;
-import view.Raster;
+import view.FrameBuffer;
+import view.OffscreenFrameBuffer;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -16,33 +25,283 @@ import java.util.Optional;
  */
 public abstract class AbstractGPURenderer implements GPURenderer {
 
-    protected final DepthBuffer<Double> zb;
+    protected final DepthBuffer zb;
+    protected final HiZBuffer hiZ;
     protected final int width;
     protected final int height;
-    protected Raster raster;
+    protected FrameBuffer frameBuffer;
     protected Mat4 model, view, projection;
-
-    public AbstractGPURenderer(Raster raster) {
-        this.raster = raster;
-        this.width = raster.getWidth();
-        this.height = raster.getHeight();
+    private Mat4 modelViewProjection;
+    private boolean mvpDirty = true;
+    protected int rejectedTriangles;
+    protected int rejectedSpans;
+    protected CullMode cullMode = CullMode.NONE;
+    protected int culledTriangles;
+    protected int culledRenderables;
+    private long frameTime;
+    private boolean frameTimeSet;
+    // roviny pohledového jehlanu v souřadnicích modelu, (a, b, c, d) pro každou rovinu
+    private final double[] frustumPlanes = new double[4 * 6];
+    protected final VertexCache vertexCache = new VertexCache();
+    private static final int CLIP_PLANES = 6;
+    // trojúhelník ořezaný šesti rovinami má nejvýše 9 vrcholů
+    private final Vertex[] clipPolygon = new Vertex[3 + CLIP_PLANES];
+    private final Vertex[] clipPolygonTmp = new Vertex[3 + CLIP_PLANES];
+
+    /**
+     * @param frameBuffer target of rendering, e.g. {@link view.Raster} or
+     *                    {@link OffscreenFrameBuffer}
+     */
+    public AbstractGPURenderer(FrameBuffer frameBuffer) {
+        this.frameBuffer = frameBuffer;
+        this.width = frameBuffer.getWidth();
+        this.height = frameBuffer.getHeight();
         model = new Mat4Identity();
         view = new Mat4Identity();
         projection = new Mat4Identity();
-        zb = new DepthBuffer<>(new Double[width][height]);
+        zb = new DepthBuffer(width, height);
+        hiZ = new HiZBuffer(zb);
     }
 
     @Override
     public void clear() {
-        raster.clear();
+        frameBuffer.clear();
         zb.clear(1d);
+        rejectedTriangles = 0;
+        rejectedSpans = 0;
+        culledTriangles = 0;
+        culledRenderables = 0;
+        vertexCache.resetCounters();
+    }
+
+    @Override
+    public void setModel(Mat4 model) {
+        if (!isSameMatrix(this.model, model)) {
+            this.model = model;
+            mvpDirty = true;
+        }
+    }
+
+    @Override
+    public void setView(Mat4 view) {
+        if (!isSameMatrix(this.view, view)) {
+            this.view = view;
+            mvpDirty = true;
+        }
+    }
+
+    @Override
+    public void setProjection(Mat4 projection) {
+        if (!isSameMatrix(this.projection, projection)) {
+            this.projection = projection;
+            mvpDirty = true;
+        }
+    }
+
+    @Override
+    public void setFrameTime(long nanoTime) {
+        this.frameTime = nanoTime;
+        this.frameTimeSet = true;
+    }
+
+    /**
+     * Combined model, view and projection matrix. It is computed again only
+     * after one of the matrices was changed.
+     *
+     * @return model-view-projection matrix
+     */
+    protected Mat4 getModelViewProjection() {
+        if (mvpDirty) {
+            modelViewProjection = model.mul(view).mul(projection);
+            extractFrustumPlanes(modelViewProjection);
+            mvpDirty = false;
+        }
+        return modelViewProjection;
+    }
+
+    /**
+     * Sets model matrix for drawing of renderable. Model matrix of
+     * {@link Transformable} object, interpolated between animation steps, is
+     * applied before the base model matrix.
+     *
+     * @param renderable drawn object
+     * @param baseModel  model matrix set by {@link #setModel(Mat4)}
+     */
+    protected void setRenderableModel(Renderable renderable, Mat4 baseModel) {
+        if (renderable instanceof Transformable) {
+            final TransformableState state = ((Transformable) renderable).getTransformableState();
+            final Mat4 objectModel = frameTimeSet
+                    ? state.getModelMatrixAt(frameTime)
+                    : state.getModelMatrices().getCurrent();
+            setModel(objectModel.mul(baseModel));
+        } else {
+            setModel(baseModel);
+        }
+    }
+
+    /**
+     * Extracts planes of view volume from model-view-projection matrix. Point
+     * is multiplied as row vector, so clip coordinate is dot product of the
+     * point with a column of the matrix. Planes are in the same order as in
+     * {@link #planeDistance(Vertex, int)}.
+     *
+     * @param m model-view-projection matrix
+     */
+    private void extractFrustumPlanes(Mat4 m) {
+        for (int i = 0; i < 4; i++) {
+            final double x = m.get(i, 0);
+            final double y = m.get(i, 1);
+            final double z = m.get(i, 2);
+            final double w = m.get(i, 3);
+            frustumPlanes[i] = w + x;
+            frustumPlanes[4 + i] = w - x;
+            frustumPlanes[8 + i] = w + y;
+            frustumPlanes[12 + i] = w - y;
+            frustumPlanes[16 + i] = z;
+            frustumPlanes[20 + i] = w - z;
+        }
+    }
+
+    /**
+     * Tests bounding volume of renderable against view frustum of current
+     * model-view-projection matrix. Skipped renderables are counted.
+     *
+     * @param renderable tested renderable
+     * @return {@code true} if the renderable lies whole outside of view volume
+     */
+    protected boolean isRenderableCulled(Renderable renderable) {
+        final BoundingVolume bounds = renderable.getBounds();
+        if (bounds == null) {
+            return false;
+        }
+        getModelViewProjection();
+        for (int plane = 0; plane < CLIP_PLANES; plane++) {
+            final double a = frustumPlanes[4 * plane];
+            final double b = frustumPlanes[4 * plane + 1];
+            final double c = frustumPlanes[4 * plane + 2];
+            final double d = frustumPlanes[4 * plane + 3];
+            // i vrchol kvádru nejdále ve směru normály je za rovinou
+            final double x = a >= 0 ? bounds.getMaxX() : bounds.getMinX();
+            final double y = b >= 0 ? bounds.getMaxY() : bounds.getMinY();
+            final double z = c >= 0 ? bounds.getMaxZ() : bounds.getMinZ();
+            if (a * x + b * y + c * z + d < 0) {
+                culledRenderables++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSameMatrix(Mat4 a, Mat4 b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        for (int row = 0; row < 4; row++) {
+            for (int column = 0; column < 4; column++) {
+                if (a.get(row, column) != b.get(row, column)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void setLazyClear(boolean lazyClear) {
+        zb.setLazyClear(lazyClear);
+        frameBuffer.setLazyClear(lazyClear);
+    }
+
+    /**
+     * @return number of triangles rejected by hierarchical z-test since last clear
+     */
+    public int getRejectedTriangles() {
+        return rejectedTriangles;
+    }
+
+    /**
+     * @return number of spans rejected by hierarchical z-test since last clear
+     */
+    public int getRejectedSpans() {
+        return rejectedSpans;
+    }
+
+    /**
+     * Cull mode used for draw calls without {@link model.Renderable}. Draw of
+     * renderable uses its own cull mode.
+     *
+     * @param cullMode winding of skipped triangles
+     */
+    public void setCullMode(CullMode cullMode) {
+        this.cullMode = cullMode;
+    }
+
+    public CullMode getCullMode() {
+        return cullMode;
+    }
+
+    /**
+     * @return number of back-facing and degenerate triangles skipped since last clear
+     */
+    public int getCulledTriangles() {
+        return culledTriangles;
+    }
+
+    /**
+     * @return number of renderables skipped by view frustum culling since last clear
+     */
+    public int getCulledRenderables() {
+        return culledRenderables;
+    }
+
+    /**
+     * @return number of vertices reused from post-transform cache since last clear
+     */
+    public long getVertexCacheHits() {
+        return vertexCache.getHits();
+    }
+
+    /**
+     * @return number of vertices transformed through post-transform cache since last clear
+     */
+    public long getVertexTransforms() {
+        return vertexCache.getTransforms();
+    }
+
+    /**
+     * Prepares post-transform cache for vertex buffer of next draw call.
+     *
+     * @param vb vertex buffer
+     */
+    protected void beginDraw(List<Vertex> vb) {
+        vertexCache.begin(vb, getModelViewProjection());
+    }
+
+    /**
+     * Vertex transformed to clip space, each vertex is transformed only
+     * once per draw call.
+     *
+     * @param index index to vertex buffer given to {@link #beginDraw(List)}
+     * @return vertex in clip space
+     */
+    protected Vertex clipVertex(int index) {
+        return vertexCache.get(index);
     }
 
     protected void preparePoint(Vertex v) {
-        Vertex a = new Vertex(
-                v.getPoint().mul(model).mul(view).mul(projection),
+        clipPoint(new Vertex(
+                v.getPoint().mul(getModelViewProjection()),
                 v.getColor()
-        );
+        ));
+    }
+
+    /**
+     * @param a point in clip space
+     */
+    protected void clipPoint(Vertex a) {
         if (-a.getW() > a.getX()) {
             return;
         }
@@ -81,62 +340,42 @@ public abstract class AbstractGPURenderer implements GPURenderer {
     }
 
     protected void prepareLine(Vertex v1, Vertex v2) {
-
-        Vertex a = new Vertex(
-                v1.getPoint().mul(model).mul(view).mul(projection),
-                v1.getColor()
-        );
-        Vertex b = new Vertex(
-                v2.getPoint().mul(model).mul(view).mul(projection),
-                v2.getColor()
+        clipLine(
+                new Vertex(v1.getPoint().mul(getModelViewProjection()), v1.getColor()),
+                new Vertex(v2.getPoint().mul(getModelViewProjection()), v2.getColor())
         );
+    }
 
-//        ořezání celé úsečky do objemu
-        // ořezání pro hranu X
-        if (-a.getW() > a.getX() && -b.getW() > b.getX()) {
-            return;
-        }
-
-        if (a.getX() > a.getW() && b.getX() > b.getW()) {
-            return;
-        }
-
-        // ořezání pro hranu Y
-        if (-a.getW() > a.getY() && -b.getW() > b.getY()) {
-            return;
-        }
-        if (a.getY() > a.getW() && b.getY() > b.getW()) {
-            return;
-        }
-
-        // ořezání pro hranu Z
-        if (0 > a.getZ() && 0 > b.getZ()) {
-            return;
-        }
-
-        if (a.getZ() > a.getW() && b.getZ() > b.getW()) {
-            return;
-        }
-
-        // seřazení podle Z
-        if (a.getZ() < b.getZ()) {
-            Vertex tmp = a;
-            a = b;
-            b = tmp;
-        }
-
-        // ořezání pro hranu Z
-        if (a.getZ() < 0) {
-            return;
-        } else if (b.getZ() < 0) {
-            final double t = getParameterT(0d, a.getZ(), b.getZ());
-            final Vertex c = interpolate(a, b, t);
-            drawLine(a, c);
-        } else {
-            drawLine(a, b);
+    /**
+     * Clips line by Liang-Barsky algorithm against all six planes of view
+     * volume.
+     *
+     * @param a start of line in clip space
+     * @param b end of line in clip space
+     */
+    protected void clipLine(Vertex a, Vertex b) {
+        double t0 = 0;
+        double t1 = 1;
+        for (int plane = 0; plane < CLIP_PLANES; plane++) {
+            final double da = planeDistance(a, plane);
+            final double db = planeDistance(b, plane);
+            if (da < 0 && db < 0) {
+                return;
+            }
+            if (da < 0) {
+                t0 = Math.max(t0, da / (da - db));
+            } else if (db < 0) {
+                t1 = Math.min(t1, da / (da - db));
+            }
+            if (t0 > t1) {
+                return;
+            }
         }
 
-
+        drawLine(
+                t0 > 0 ? interpolate(a, b, t0) : a,
+                t1 < 1 ? interpolate(a, b, t1) : b
+        );
     }
 
     protected void drawLine(Vertex v1, Vertex v2) {
@@ -221,7 +460,7 @@ public abstract class AbstractGPURenderer implements GPURenderer {
     }
 
     private static void testInterpolate() {
-        final SurfaceGPURenderer renderer = new SurfaceGPURenderer(new Raster());
+        final SurfaceGPURenderer renderer = new SurfaceGPURenderer(new OffscreenFrameBuffer(800, 600));
         final Vertex a = new Vertex(new Point3D(), new Col(Color.black.getRGB()), new Vec2D());
         final Vertex b = new Vertex(new Point3D(10, 10, 0), new Col(Color.white.getRGB()), new Vec2D(300, 500));
         System.out.println("AbstractGPURenderer.testInterpolate");
@@ -244,71 +483,130 @@ public abstract class AbstractGPURenderer implements GPURenderer {
     }
 
     protected void prepareTriangle(Vertex v1, Vertex v2, Vertex v3) {
+        clipTriangle(
+                v1.withPoint(v1.getPoint().mul(getModelViewProjection())),
+                v2.withPoint(v2.getPoint().mul(getModelViewProjection())),
+                v3.withPoint(v3.getPoint().mul(getModelViewProjection()))
+        );
+    }
 
-        Vertex a = v1.withPoint(v1.getPoint().mul(model).mul(view).mul(projection));
-        Vertex b = v2.withPoint(v2.getPoint().mul(model).mul(view).mul(projection));
-        Vertex c = v3.withPoint(v3.getPoint().mul(model).mul(view).mul(projection));
-
-//        ořezání celého trojúhehlníku do objemu
-        // ořezání pro hranu X
-        if (-a.getW() > a.getX() && -b.getW() > b.getX() && -c.getW() > c.getX()) {
+    /**
+     * Clips triangle by Sutherland-Hodgman algorithm against all six planes
+     * of view volume. Clipped polygon is split into a fan of triangles with
+     * the same orientation as the original one.
+     *
+     * @param a vertex in clip space
+     * @param b vertex in clip space
+     * @param c vertex in clip space
+     */
+    protected void clipTriangle(Vertex a, Vertex b, Vertex c) {
+        final int outA = outCode(a);
+        final int outB = outCode(b);
+        final int outC = outCode(c);
+
+        // celý trojúhelník je za jednou rovinou
+        if ((outA & outB & outC) != 0) {
             return;
         }
-
-        if (a.getX() > a.getW() && b.getX() > b.getW() && c.getX() > c.getW()) {
+        // celý trojúhelník je uvnitř
+        if ((outA | outB | outC) == 0) {
+            drawTriangle(a, b, c);
             return;
         }
 
-        // ořezání pro hranu Y
-        if (-a.getW() > a.getY() && -b.getW() > b.getY() && -c.getW() > c.getY()) {
-            return;
-        }
-        if (a.getY() > a.getW() && b.getY() > b.getW() && c.getY() > c.getW()) {
-            return;
+        Vertex[] input = clipPolygon;
+        Vertex[] output = clipPolygonTmp;
+        input[0] = a;
+        input[1] = b;
+        input[2] = c;
+        int count = 3;
+        final int crossed = outA | outB | outC;
+        for (int plane = 0; plane < CLIP_PLANES && count > 0; plane++) {
+            if ((crossed & (1 << plane)) == 0) {
+                continue;
+            }
+            count = clipPolygon(input, count, output, plane);
+            final Vertex[] tmp = input;
+            input = output;
+            output = tmp;
         }
 
-        // ořezání pro hranu Z
-        if (0 > a.getZ() && 0 > b.getZ() && 0 > c.getZ()) {
-            return;
+        for (int i = 1; i < count - 1; i++) {
+            drawTriangle(input[0], input[i], input[i + 1]);
         }
+        Arrays.fill(clipPolygon, null);
+        Arrays.fill(clipPolygonTmp, null);
+    }
 
-        if (a.getZ() > a.getW() && b.getZ() > b.getW() && c.getZ() > c.getW()) {
-            return;
+    /**
+     * One step of Sutherland-Hodgman algorithm
+     *
+     * @param input  vertices of polygon
+     * @param count  number of vertices
+     * @param output array for clipped polygon
+     * @param plane  clipping plane
+     * @return number of vertices of clipped polygon
+     */
+    private int clipPolygon(Vertex[] input, int count, Vertex[] output, int plane) {
+        int result = 0;
+        Vertex previous = input[count - 1];
+        double previousDistance = planeDistance(previous, plane);
+        for (int i = 0; i < count; i++) {
+            final Vertex current = input[i];
+            final double distance = planeDistance(current, plane);
+            if (distance >= 0) {
+                if (previousDistance < 0) {
+                    output[result++] = interpolate(previous, current,
+                            previousDistance / (previousDistance - distance));
+                }
+                output[result++] = current;
+            } else if (previousDistance >= 0) {
+                output[result++] = interpolate(previous, current,
+                        previousDistance / (previousDistance - distance));
+            }
+            previous = current;
+            previousDistance = distance;
         }
+        return result;
+    }
 
-
-        // seřazení podle Z
-        final List<Vertex> vertexList = new ArrayList<>(List.of(a, b, c));
-        vertexList.sort(Comparator.comparing(Vertex::getZ).reversed());
-        a = vertexList.get(0);
-        b = vertexList.get(1);
-        c = vertexList.get(2);
-
-
-        // ořezání podle hrany Z
-        if (a.getZ() < 0) {
-            return;
-        } else if (b.getZ() < 0) {
-            double t = getParameterT(0d, a.getZ(), b.getZ());
-            final Vertex ab = interpolate(a, b, t);
-
-            double t2 = getParameterT(0d, a.getZ(), c.getZ());
-            final Vertex ac = interpolate(a, c, t2);
-
-            drawTriangle(a, ab, ac);
-        } else if (c.getZ() < 0) {
-            double t = getParameterT(0d, b.getZ(), c.getZ());
-            final Vertex bc = interpolate(b, c, t);
-
-            final double t2 = getParameterT(0d, a.getZ(), c.getZ());
-            final Vertex ac = interpolate(a, c, t2);
-
-            drawTriangle(a, b, bc);
-            drawTriangle(a, bc, ac);
-        } else {
-            drawTriangle(a, b, c);
+    /**
+     * Signed distance of vertex from clipping plane, it is negative outside of
+     * view volume. Planes are -w ≤ x ≤ w, -w ≤ y ≤ w and 0 ≤ z ≤ w.
+     *
+     * @param v     vertex in clip space
+     * @param plane index of plane
+     * @return distance
+     */
+    private static double planeDistance(Vertex v, int plane) {
+        switch (plane) {
+            case 0:
+                return v.getW() + v.getX();
+            case 1:
+                return v.getW() - v.getX();
+            case 2:
+                return v.getW() + v.getY();
+            case 3:
+                return v.getW() - v.getY();
+            case 4:
+                return v.getZ();
+            default:
+                return v.getW() - v.getZ();
         }
+    }
 
+    /**
+     * @param v vertex in clip space
+     * @return bit mask of planes the vertex lies outside of
+     */
+    private static int outCode(Vertex v) {
+        int code = 0;
+        for (int plane = 0; plane < CLIP_PLANES; plane++) {
+            if (planeDistance(v, plane) < 0) {
+                code |= 1 << plane;
+            }
+        }
+        return code;
     }
 
     protected void fillLine(Vertex a, Vertex b) {
@@ -318,6 +616,10 @@ public abstract class AbstractGPURenderer implements GPURenderer {
             b = tmp;
         }
 
+        if (isSpanOccluded(a, b)) {
+            return;
+        }
+
         for (int x = Math.max((int) a.getX() + 1, 0); x <= Math.min((int) b.getX(), width - 1); x++) {
             double tz = getParameterT(x, a.getX(), b.getX());
             final Vertex ab = interpolate(a, b, tz);
@@ -325,20 +627,55 @@ public abstract class AbstractGPURenderer implements GPURenderer {
         }
     }
 
+    /**
+     * Tests span against hierarchical z-buffer. Vertices have to be in window
+     * coordinates and sorted by X.
+     *
+     * @param a left end of span
+     * @param b right end of span
+     * @return {@code true} if the whole span is hidden and can be skipped
+     */
+    protected boolean isSpanOccluded(Vertex a, Vertex b) {
+        final int y = (int) Math.round(a.getY());
+        final double minZ = Math.min(a.getZ(), b.getZ());
+        if (hiZ.isOccluded((int) a.getX(), y, (int) b.getX() + 1, y, minZ)) {
+            rejectedSpans++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tests triangle's bounding box against hierarchical z-buffer. Vertices
+     * have to be in window coordinates.
+     *
+     * @param a vertex
+     * @param b vertex
+     * @param c vertex
+     * @return {@code true} if the whole triangle is hidden and can be skipped
+     */
+    protected boolean isTriangleOccluded(Vertex a, Vertex b, Vertex c) {
+        final double minX = Math.min(a.getX(), Math.min(b.getX(), c.getX()));
+        final double maxX = Math.max(a.getX(), Math.max(b.getX(), c.getX()));
+        final double minY = Math.min(a.getY(), Math.min(b.getY(), c.getY()));
+        final double maxY = Math.max(a.getY(), Math.max(b.getY(), c.getY()));
+        final double minZ = Math.min(a.getZ(), Math.min(b.getZ(), c.getZ()));
+        // +1 kvůli zaokrouhlení souřadnic v drawPixel
+        if (hiZ.isOccluded((int) minX, (int) minY, (int) maxX + 1, (int) maxY + 1, minZ)) {
+            rejectedTriangles++;
+            return true;
+        }
+        return false;
+    }
+
     protected void drawPixel(Vertex v) {
         final int x = (int) Math.round(v.getX());
         final int y = (int) Math.round(v.getY());
         final double z = v.getZ();
 
-        // z-test
-
-        try {
-            if (zb.get(x, y) > z) {
-                zb.set(x, y, z);
-                raster.drawPixel(x, y, v.getColor().getRGB());
-            }
-        } catch (Exception ignore) {
-            // při zaokrouhlení dochází k chybě, zanedbatelné
+        // z-test, pixely mimo plátno neprojdou
+        if (zb.testAndSet(x, y, z)) {
+            frameBuffer.drawPixel(x, y, v.getColor().getRGB());
         }
     }
 
@@ -371,6 +708,146 @@ public abstract class AbstractGPURenderer implements GPURenderer {
         Vertex bb = v2.withPoint(new Point3D(vec3D2));
         Vertex cc = v3.withPoint(new Point3D(vec3D3));
 
+        if (isTriangleCulled(aa, bb, cc)) {
+            culledTriangles++;
+            return;
+        }
+
+        if (isTriangleOccluded(aa, bb, cc)) {
+            return;
+        }
+
+        rasterizeTriangle(aa, bb, cc);
+    }
+
+    /**
+     * Tests winding of triangle by its signed area. Y of window coordinates
+     * goes down, so positive area means clockwise winding on the screen.
+     * Degenerate triangles are always culled.
+     *
+     * @param a vertex in window coordinates
+     * @param b vertex in window coordinates
+     * @param c vertex in window coordinates
+     * @return {@code true} if the triangle should not be drawn
+     */
+    protected boolean isTriangleCulled(Vertex a, Vertex b, Vertex c) {
+        final double area = (b.getX() - a.getX()) * (c.getY() - a.getY())
+                - (b.getY() - a.getY()) * (c.getX() - a.getX());
+        if (!(area != 0)) {
+            // nulový obsah nebo NaN
+            return true;
+        }
+        return isWindingCulled(area);
+    }
+
+    /**
+     * Tests winding of triangle before clipping. Only triangles with all
+     * vertices in front of the camera are decided, the others are kept.
+     * Degenerate triangles are not culled, so edges seen from the side stay
+     * visible in wireframe.
+     *
+     * @param a vertex in clip space
+     * @param b vertex in clip space
+     * @param c vertex in clip space
+     * @return {@code true} if the triangle should not be drawn
+     */
+    protected boolean isClipTriangleCulled(Vertex a, Vertex b, Vertex c) {
+        if (cullMode == CullMode.NONE || !(a.getW() > 0 && b.getW() > 0 && c.getW() > 0)) {
+            return false;
+        }
+        final double ax = a.getX() / a.getW(), ay = a.getY() / a.getW();
+        final double bx = b.getX() / b.getW(), by = b.getY() / b.getW();
+        final double cx = c.getX() / c.getW(), cy = c.getY() / c.getW();
+        // okno má Y obráceně, znaménko obsahu se otočí
+        final double area = -((bx - ax) * (cy - ay) - (by - ay) * (cx - ax));
+        return area != 0 && isWindingCulled(area);
+    }
+
+    /**
+     * @param area signed area of triangle in window coordinates
+     * @return {@code true} if winding is culled by current cull mode
+     */
+    private boolean isWindingCulled(double area) {
+        switch (cullMode) {
+            case CW:
+                return area > 0;
+            case CCW:
+                return area < 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Assembles triangles of part with triangle topology and passes them to
+     * {@link #assembleTriangle(Vertex, Vertex, Vertex)}. Every second triangle
+     * of strip has its first two vertices swapped, so all triangles of strip
+     * have the winding of the first one in every renderer.
+     *
+     * @param part part with topology TRIANGLES, TRIANGLE_STRIP or TRIANGLE_FAN
+     * @param ib   index buffer
+     */
+    protected void drawTriangles(Part part, IndexArray ib) {
+        final int start = part.getIndex();
+        final int count = part.getCount();
+        switch (part.getType()) {
+            case TRIANGLES:
+                for (int index = start; index < start + (count * 3); index += 3) {
+                    final Vertex v1 = clipVertex(ib.getInt(index));
+                    final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                    final Vertex v3 = clipVertex(ib.getInt(index + 2));
+                    assembleTriangle(v1, v2, v3);
+                }
+                break;
+
+            case TRIANGLE_STRIP:
+                for (int index = start; index < count + start; index++) {
+                    final Vertex v1 = clipVertex(ib.getInt(index));
+                    final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                    final Vertex v3 = clipVertex(ib.getInt(index + 2));
+                    // každý druhý trojúhelník pásu má opačné pořadí vrcholů
+                    if (((index - start) & 1) == 0) {
+                        assembleTriangle(v1, v2, v3);
+                    } else {
+                        assembleTriangle(v2, v1, v3);
+                    }
+                }
+                break;
+
+            case TRIANGLE_FAN:
+                final Vertex origin = clipVertex(ib.getInt(start));
+                for (int index = start; index < count + start; index++) {
+                    final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                    final Vertex v3 = clipVertex(ib.getInt(index + 2));
+                    assembleTriangle(origin, v2, v3);
+                }
+                break;
+
+            default:
+                throw new IllegalArgumentException("Part is not made of triangles: " + part.getType());
+        }
+    }
+
+    /**
+     * Processes one assembled triangle, by default it is clipped and filled.
+     *
+     * @param a vertex in clip space
+     * @param b vertex in clip space
+     * @param c vertex in clip space
+     */
+    protected void assembleTriangle(Vertex a, Vertex b, Vertex c) {
+        clipTriangle(a, b, c);
+    }
+
+    /**
+     * Fills triangle line by line. Vertices have to be dehomogenized and
+     * in window coordinates.
+     *
+     * @param aa vertex
+     * @param bb vertex
+     * @param cc vertex
+     */
+    protected void rasterizeTriangle(Vertex aa, Vertex bb, Vertex cc) {
         final List<Vertex> vertices = new ArrayList<>(List.of(aa, bb, cc));
         vertices.sort(Comparator.comparing(Vertex::getY));
         aa = vertices.get(0);
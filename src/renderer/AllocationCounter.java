@@ -0,0 +1,47 @@
+package renderer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Instance of class {@code AllocationCounter}. Reads number of bytes allocated
+ * by the current thread, so a piece of code can be checked that it does not
+ * create any objects. Works only on JVM providing
+ * {@link com.sun.management.ThreadMXBean}.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+final class AllocationCounter {
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = createBean();
+
+    private AllocationCounter() {
+    }
+
+    /**
+     * @return {@code true} if the JVM can measure allocations
+     */
+    static boolean isSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * @return total bytes allocated by the current thread, {@code 0} if not supported
+     */
+    static long allocatedBytes() {
+        return THREAD_BEAN == null ? 0 : THREAD_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean createBean() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+                return sunBean;
+            }
+        }
+        return null;
+    }
+}
@@ -3,30 +3,181 @@ package renderer;
 import java.util.Arrays;
 
 /**
- * Instance of class {@code DepthBuffer}
+ * Instance of class {@code DepthBuffer}. Depth values are kept in one primitive
+ * array row by row, so a pixel is addressed by single index
+ * {@code y * width + x} and scanline walks the memory sequentially.
+ * <br><br>
+ * In lazy clear mode every value carries number of frame (generation) in which
+ * it was written. Clearing only starts new generation, values from older
+ * generations are read as the clear value, so clear does not depend on the
+ * resolution.
  *
  * @author Stanislav Čapek
- * @version 1.0
+ * @version 1.2
  */
-public class DepthBuffer<T extends Number> {
+public class DepthBuffer {
 
-    private T[][] data;
+    private final double[] data;
+    private final int width;
+    private final int height;
+    private HiZBuffer pyramid;
+    private double clearValue = 1d;
+    private boolean lazyClear;
+    private int[] generations;
+    private int generation;
 
-    public DepthBuffer(T[][] data) {
-        this.data = data;
+    /**
+     * Creates depth buffer
+     *
+     * @param width  width in pixels
+     * @param height height in pixels
+     */
+    public DepthBuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.data = new double[width * height];
     }
 
-    public T get(int x, int y) {
-        return data[x][y];
+    /**
+     * Attaches hierarchical buffer which is notified about every change
+     *
+     * @param pyramid hierarchical buffer
+     */
+    void setPyramid(HiZBuffer pyramid) {
+        this.pyramid = pyramid;
     }
 
-    public void set(int x, int y, T z) {
-        data[x][y] = z;
+    public int getWidth() {
+        return width;
     }
 
-    public void clear(T clearValue) {
-        for (T[] d : data) {
-            Arrays.fill(d, clearValue);
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param x column
+     * @param y row
+     * @return index of pixel in buffer
+     */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public double get(int x, int y) {
+        return get(y * width + x);
+    }
+
+    public double get(int index) {
+        if (lazyClear && generations[index] != generation) {
+            return clearValue;
+        }
+        return data[index];
+    }
+
+    public void set(int x, int y, double z) {
+        set(y * width + x, z);
+    }
+
+    public void set(int index, double z) {
+        final double old = get(index);
+        store(index, z);
+        if (pyramid != null) {
+            pyramid.depthChanged(index % width, index / width, old, z);
+        }
+    }
+
+    /**
+     * Depth test. The value is stored only if it is closer than stored one.
+     * Pixels outside of the buffer never pass.
+     *
+     * @param x column
+     * @param y row
+     * @param z depth of the fragment
+     * @return {@code true} if the test passed and {@code z} was stored
+     */
+    public boolean testAndSet(int x, int y, double z) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        final int index = y * width + x;
+        final double old = get(index);
+        if (old > z) {
+            store(index, z);
+            if (pyramid != null) {
+                pyramid.depthReduced(x, y, old);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Depth test without bounds check.
+     *
+     * @param index index of pixel, see {@link #index(int, int)}
+     * @param z     depth of the fragment
+     * @return {@code true} if the test passed and {@code z} was stored
+     */
+    public boolean testAndSet(int index, double z) {
+        final double old = get(index);
+        if (old > z) {
+            store(index, z);
+            if (pyramid != null) {
+                pyramid.depthReduced(index % width, index / width, old);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public void clear(double clearValue) {
+        this.clearValue = clearValue;
+        if (lazyClear) {
+            // nová generace, přetečení čítače vyřeší jednorázové vynulování
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(generations, 0);
+                generation = 1;
+            }
+        } else {
+            Arrays.fill(data, clearValue);
+        }
+        if (pyramid != null) {
+            pyramid.clear(clearValue);
+        }
+    }
+
+    /**
+     * Switches between lazy (generation based) and eager clearing. Content of
+     * the buffer is preserved.
+     *
+     * @param lazyClear {@code true} for lazy clearing
+     */
+    public void setLazyClear(boolean lazyClear) {
+        if (this.lazyClear == lazyClear) {
+            return;
+        }
+        if (lazyClear) {
+            generation = 1;
+            generations = new int[data.length];
+            Arrays.fill(generations, generation);
+        } else {
+            for (int i = 0; i < data.length; i++) {
+                data[i] = get(i);
+            }
+            generations = null;
+        }
+        this.lazyClear = lazyClear;
+    }
+
+    public boolean isLazyClear() {
+        return lazyClear;
+    }
+
+    private void store(int index, double z) {
+        data[index] = z;
+        if (lazyClear) {
+            generations[index] = generation;
         }
     }
 }
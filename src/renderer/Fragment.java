@@ -0,0 +1,54 @@
+package renderer;
+
+import model.Texture2D;
+
+/**
+ * Instance of class {@code Fragment}. Mutable carrier of one rasterized pixel
+ * and its interpolated attributes. Rasterizers reuse one instance for all
+ * pixels, so no object is created per pixel.
+ * <br><br>
+ * Attributes are in the same form as in dehomogenized {@link model.Vertex},
+ * i.e. color and texture coordinates are multiplied by {@code one} (1/w).
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+final class Fragment {
+
+    int x;
+    int y;
+    double z;
+    double one;
+    double r;
+    double g;
+    double b;
+    double u;
+    double v;
+    /**
+     * Level of detail of texture, see {@link TextureGradients}
+     */
+    double lod;
+    /**
+     * Texture of rasterized primitive, {@code null} if not textured
+     */
+    Texture2D texture;
+
+    /**
+     * Packs color components in interval {@code 0-1} to RGB integer.
+     *
+     * @param r red
+     * @param g green
+     * @param b blue
+     * @return packed RGB
+     */
+    static int toRGB(double r, double g, double b) {
+        return (channel(r) << 16) | (channel(g) << 8) | channel(b);
+    }
+
+    private static int channel(double c) {
+        if (c <= 0) {
+            return 0;
+        }
+        return c >= 1 ? 255 : (int) (c * 255);
+    }
+}
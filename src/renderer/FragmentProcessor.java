@@ -0,0 +1,16 @@
+package renderer;
+
+/**
+ * Instance of interface {@code FragmentProcessor} receives fragments produced
+ * by rasterizer, performs depth test and writes the color.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+interface FragmentProcessor {
+
+    /**
+     * @param fragment fragment, valid only during the call
+     */
+    void drawFragment(Fragment fragment);
+}
@@ -1,5 +1,6 @@
 package renderer;
 
+import model.IndexArray;
 import model.Part;
 import model.Renderable;
 import model.Vertex;
@@ -11,12 +12,32 @@ public interface GPURenderer {
 
     void clear();
 
+    /**
+     * Lazy clear touches only the parts of buffers which were drawn to
+     * since the last clear, so its cost does not grow with resolution.
+     *
+     * @param lazyClear {@code true} for lazy clearing
+     */
+    void setLazyClear(boolean lazyClear);
+
     /**
      * @param parts parts of model
      * @param vb    vertex buffer
      * @param ib    index buffer
      */
-    void draw(List<Part> parts, List<Vertex> vb, List<Integer> ib);
+    void draw(List<Part> parts, List<Vertex> vb, IndexArray ib);
+
+    /**
+     * Compatibility variant, the index buffer is copied to {@link IndexArray}
+     * unless it already is one.
+     *
+     * @param parts parts of model
+     * @param vb    vertex buffer
+     * @param ib    index buffer
+     */
+    default void draw(List<Part> parts, List<Vertex> vb, List<Integer> ib) {
+        draw(parts, vb, IndexArray.of(ib));
+    }
 
     void draw(Renderable... renderables);
 
@@ -26,4 +47,20 @@ public interface GPURenderer {
 
     void setProjection(Mat4 projection);
 
+    /**
+     * Time of frame used for model matrices of animated objects, they are
+     * interpolated between the previous and the current step of animation.
+     * Without frame time the current step is drawn.
+     *
+     * @param nanoTime time of frame by {@link System#nanoTime()}
+     */
+    void setFrameTime(long nanoTime);
+
+    /**
+     * Releases resources held by renderer, e.g. its threads. Renderer must not
+     * be used afterwards.
+     */
+    default void dispose() {
+    }
+
 }
@@ -0,0 +1,181 @@
+package renderer;
+
+import model.Texture2D;
+import model.Vertex;
+
+import java.util.Arrays;
+
+/**
+ * Instance of class {@code HalfSpaceRasterizer}. Fills triangle by testing
+ * pixels of its bounding box against three edge functions. Values of edge
+ * functions (unnormalized barycentric weights) are stepped incrementally,
+ * pixel centers lie on integer coordinates.
+ * <br><br>
+ * Pixels lying exactly on an edge follow top-left fill rule, so a pixel on
+ * an edge shared by two triangles is drawn exactly once.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+class HalfSpaceRasterizer {
+
+    private final Fragment fragment = new Fragment();
+    private final TextureGradients gradients = new TextureGradients();
+    // úrovně detailu čtveřic jednoho řádku čtveřic, NaN = ještě nespočtena
+    private double[] quadLods = new double[0];
+    private final FragmentProcessor processor;
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    /**
+     * @param processor receiver of fragments
+     * @param width     width of viewport
+     * @param height    height of viewport
+     */
+    HalfSpaceRasterizer(FragmentProcessor processor, int width, int height) {
+        this.processor = processor;
+        setBounds(0, 0, width - 1, height - 1);
+    }
+
+    /**
+     * Limits rasterization to the rectangle
+     *
+     * @param minX left column
+     * @param minY top row
+     * @param maxX right column (inclusive)
+     * @param maxY bottom row (inclusive)
+     */
+    void setBounds(int minX, int minY, int maxX, int maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Rasterize triangle. Vertices have to be dehomogenized and in window
+     * coordinates.
+     *
+     * @param a       vertex
+     * @param b       vertex
+     * @param c       vertex
+     * @param texture texture of triangle, may be {@code null}
+     */
+    void rasterize(Vertex a, Vertex b, Vertex c, Texture2D texture) {
+        double area = (b.getX() - a.getX()) * (c.getY() - a.getY())
+                - (b.getY() - a.getY()) * (c.getX() - a.getX());
+        if (!(area != 0)) {
+            // degenerovaný trojúhelník nebo NaN
+            return;
+        }
+        if (area < 0) {
+            final Vertex tmp = b;
+            b = c;
+            c = tmp;
+            area = -area;
+        }
+
+        final double ax = a.getX(), ay = a.getY();
+        final double bx = b.getX(), by = b.getY();
+        final double cx = c.getX(), cy = c.getY();
+
+        final int x0 = Math.max((int) Math.ceil(Math.min(ax, Math.min(bx, cx))), minX);
+        final int x1 = Math.min((int) Math.floor(Math.max(ax, Math.max(bx, cx))), maxX);
+        final int y0 = Math.max((int) Math.ceil(Math.min(ay, Math.min(by, cy))), minY);
+        final int y1 = Math.min((int) Math.floor(Math.max(ay, Math.max(by, cy))), maxY);
+        if (x0 > x1 || y0 > y1) {
+            return;
+        }
+
+        // hrana bc určuje váhu vrcholu a, ca váhu b, ab váhu c
+        final double stepX0 = by - cy, stepY0 = cx - bx;
+        final double stepX1 = cy - ay, stepY1 = ax - cx;
+        final double stepX2 = ay - by, stepY2 = bx - ax;
+        final boolean topLeft0 = isTopLeft(cx - bx, cy - by);
+        final boolean topLeft1 = isTopLeft(ax - cx, ay - cy);
+        final boolean topLeft2 = isTopLeft(bx - ax, by - ay);
+
+        double row0 = stepY0 * (y0 - by) + stepX0 * (x0 - bx);
+        double row1 = stepY1 * (y0 - cy) + stepX1 * (x0 - cx);
+        double row2 = stepY2 * (y0 - ay) + stepX2 * (x0 - ax);
+
+        final double az = a.getZ(), bz = b.getZ(), cz = c.getZ();
+        final double aOne = a.getOne(), bOne = b.getOne(), cOne = c.getOne();
+        final double ar = a.getColor().getR(), br = b.getColor().getR(), cr = c.getColor().getR();
+        final double ag = a.getColor().getG(), bg = b.getColor().getG(), cg = c.getColor().getG();
+        final double ab = a.getColor().getB(), bb = b.getColor().getB(), cb = c.getColor().getB();
+        final double au = a.getU(), bu = b.getU(), cu = c.getU();
+        final double av = a.getV(), bv = b.getV(), cv = c.getV();
+
+        final double invArea = 1 / area;
+        final Fragment f = fragment;
+        f.texture = texture;
+        f.lod = 0;
+        final int qx0 = x0 >> 1;
+        final int quads = (x1 >> 1) - qx0 + 1;
+        if (texture != null) {
+            gradients.set(a, b, c);
+            if (quadLods.length < quads) {
+                quadLods = new double[quads];
+            }
+        }
+        for (int y = y0; y <= y1; y++) {
+            if (texture != null && (y == y0 || (y & 1) == 0)) {
+                // nový řádek čtveřic
+                Arrays.fill(quadLods, 0, quads, Double.NaN);
+            }
+            double e0 = row0;
+            double e1 = row1;
+            double e2 = row2;
+            for (int x = x0; x <= x1; x++) {
+                if ((e0 > 0 || (e0 == 0 && topLeft0))
+                        && (e1 > 0 || (e1 == 0 && topLeft1))
+                        && (e2 > 0 || (e2 == 0 && topLeft2))) {
+                    final double w0 = e0 * invArea;
+                    final double w1 = e1 * invArea;
+                    final double w2 = e2 * invArea;
+                    f.x = x;
+                    f.y = y;
+                    f.z = w0 * az + w1 * bz + w2 * cz;
+                    f.one = w0 * aOne + w1 * bOne + w2 * cOne;
+                    f.r = w0 * ar + w1 * br + w2 * cr;
+                    f.g = w0 * ag + w1 * bg + w2 * cg;
+                    f.b = w0 * ab + w1 * bb + w2 * cb;
+                    f.u = w0 * au + w1 * bu + w2 * cu;
+                    f.v = w0 * av + w1 * bv + w2 * cv;
+                    if (texture != null) {
+                        final int quad = (x >> 1) - qx0;
+                        double lod = quadLods[quad];
+                        if (Double.isNaN(lod)) {
+                            // střed čtveřice pixelů
+                            lod = gradients.lodAt((x | 1) - 0.5, (y | 1) - 0.5);
+                            quadLods[quad] = lod;
+                        }
+                        f.lod = lod;
+                    }
+                    processor.drawFragment(f);
+                }
+                e0 += stepX0;
+                e1 += stepX1;
+                e2 += stepX2;
+            }
+            row0 += stepY0;
+            row1 += stepY1;
+            row2 += stepY2;
+        }
+    }
+
+    /**
+     * Left edge has inside of triangle in +X direction, top edge is horizontal
+     * and has inside in +Y direction (Y goes down).
+     *
+     * @param dx X difference of the edge
+     * @param dy Y difference of the edge
+     * @return {@code true} for top or left edge
+     */
+    private static boolean isTopLeft(double dx, double dy) {
+        return dy < 0 || (dy == 0 && dx > 0);
+    }
+}
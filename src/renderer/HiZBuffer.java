@@ -0,0 +1,255 @@
+package renderer;
+
+import java.util.Arrays;
+
+/**
+ * Instance of class {@code HiZBuffer}. Hierarchical depth buffer - pyramid of
+ * maximal depths over {@link DepthBuffer}. Level 0 keeps maximum of every
+ * {@value #TILE_SIZE}x{@value #TILE_SIZE} tile, each next level keeps maximum
+ * of 2x2 cells of previous level.
+ * <br><br>
+ * Depth only decreases during one frame, so a cell that was not refreshed yet
+ * holds value greater or equal to the real one. Queries are therefore always
+ * conservative, the pyramid only needs {@link #update()} from time to time to
+ * reject as much as possible.
+ * <br><br>
+ * Pixels of one level 0 tile may be written from one thread at a time only,
+ * different tiles may be written concurrently.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class HiZBuffer {
+
+    private static final int TILE_SHIFT = 3;
+    /**
+     * Size of level 0 tile in pixels
+     */
+    public static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+    private final DepthBuffer depthBuffer;
+    private final double[][] levels;
+    private final int[] levelWidths;
+    private final int[] levelHeights;
+    private final boolean[][] dirty;
+    private final int[][] dirtyCells;
+    private final int[] dirtyCounts;
+    private boolean tilesDirty;
+
+    /**
+     * Creates pyramid and attaches it to depth buffer, every successful depth
+     * test is then reported to this pyramid.
+     *
+     * @param depthBuffer depth buffer
+     */
+    public HiZBuffer(DepthBuffer depthBuffer) {
+        this.depthBuffer = depthBuffer;
+
+        int levelCount = 1;
+        int w = ceilDiv(depthBuffer.getWidth(), TILE_SIZE);
+        int h = ceilDiv(depthBuffer.getHeight(), TILE_SIZE);
+        while (w > 1 || h > 1) {
+            w = ceilDiv(w, 2);
+            h = ceilDiv(h, 2);
+            levelCount++;
+        }
+
+        levels = new double[levelCount][];
+        levelWidths = new int[levelCount];
+        levelHeights = new int[levelCount];
+        dirty = new boolean[levelCount][];
+        dirtyCells = new int[levelCount][];
+        dirtyCounts = new int[levelCount];
+
+        w = ceilDiv(depthBuffer.getWidth(), TILE_SIZE);
+        h = ceilDiv(depthBuffer.getHeight(), TILE_SIZE);
+        for (int level = 0; level < levelCount; level++) {
+            levelWidths[level] = w;
+            levelHeights[level] = h;
+            levels[level] = new double[w * h];
+            dirty[level] = new boolean[w * h];
+            dirtyCells[level] = new int[w * h];
+            w = ceilDiv(w, 2);
+            h = ceilDiv(h, 2);
+        }
+        depthBuffer.setPyramid(this);
+    }
+
+    /**
+     * Sets all levels to the value
+     *
+     * @param clearValue depth of cleared buffer
+     */
+    public void clear(double clearValue) {
+        for (int level = 0; level < levels.length; level++) {
+            Arrays.fill(levels[level], clearValue);
+            Arrays.fill(dirty[level], false);
+            dirtyCounts[level] = 0;
+        }
+        tilesDirty = false;
+    }
+
+    /**
+     * Called by {@link DepthBuffer} when depth of pixel was lowered.
+     *
+     * @param x        column
+     * @param y        row
+     * @param oldDepth depth before change
+     */
+    void depthReduced(int x, int y, double oldDepth) {
+        final int cell = (y >> TILE_SHIFT) * levelWidths[0] + (x >> TILE_SHIFT);
+        // maximum dlaždice se mohlo změnit jen pokud byl přepsán právě on
+        if (oldDepth >= levels[0][cell]) {
+            // jen příznak, seznam by nebylo možné plnit z více vláken
+            dirty[0][cell] = true;
+            tilesDirty = true;
+        }
+    }
+
+    /**
+     * Called by {@link DepthBuffer} when depth of pixel was overwritten
+     * without depth test.
+     *
+     * @param x        column
+     * @param y        row
+     * @param oldDepth depth before change
+     * @param newDepth depth after change
+     */
+    void depthChanged(int x, int y, double oldDepth, double newDepth) {
+        if (newDepth < oldDepth) {
+            depthReduced(x, y, oldDepth);
+            return;
+        }
+        // zvýšení musí být vidět hned, jinak by dotazy přestaly být konzervativní
+        int cx = x >> TILE_SHIFT;
+        int cy = y >> TILE_SHIFT;
+        for (int level = 0; level < levels.length; level++) {
+            final int cell = cy * levelWidths[level] + cx;
+            levels[level][cell] = Math.max(levels[level][cell], newDepth);
+            cx >>= 1;
+            cy >>= 1;
+        }
+    }
+
+    /**
+     * Recomputes all cells changed since last update.
+     */
+    public void update() {
+        if (!tilesDirty) {
+            return;
+        }
+        tilesDirty = false;
+        final boolean[] dirtyTiles = dirty[0];
+        for (int cell = 0; cell < dirtyTiles.length; cell++) {
+            if (dirtyTiles[cell]) {
+                dirtyTiles[cell] = false;
+                dirtyCells[0][dirtyCounts[0]++] = cell;
+            }
+        }
+        for (int level = 0; level < levels.length; level++) {
+            final int[] cells = dirtyCells[level];
+            final int count = dirtyCounts[level];
+            dirtyCounts[level] = 0;
+            for (int i = 0; i < count; i++) {
+                final int cell = cells[i];
+                dirty[level][cell] = false;
+                final double max = level == 0 ? tileMax(cell) : cellMax(level, cell);
+                if (max != levels[level][cell]) {
+                    levels[level][cell] = max;
+                    if (level + 1 < levels.length) {
+                        final int cx = cell % levelWidths[level];
+                        final int cy = cell / levelWidths[level];
+                        markDirty(level + 1, (cy >> 1) * levelWidths[level + 1] + (cx >> 1));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests if the whole rectangle is hidden behind already drawn geometry,
+     * i.e. no fragment with depth {@code minDepth} or further can pass depth
+     * test inside the rectangle.
+     *
+     * @param x0       left column
+     * @param y0       top row
+     * @param x1       right column (inclusive)
+     * @param y1       bottom row (inclusive)
+     * @param minDepth nearest depth of tested primitive
+     * @return {@code true} if the rectangle is occluded
+     */
+    public boolean isOccluded(int x0, int y0, int x1, int y1, double minDepth) {
+        x0 = Math.max(x0, 0);
+        y0 = Math.max(y0, 0);
+        x1 = Math.min(x1, depthBuffer.getWidth() - 1);
+        y1 = Math.min(y1, depthBuffer.getHeight() - 1);
+        if (x0 > x1 || y0 > y1) {
+            return true;
+        }
+
+        int cx0 = x0 >> TILE_SHIFT;
+        int cy0 = y0 >> TILE_SHIFT;
+        int cx1 = x1 >> TILE_SHIFT;
+        int cy1 = y1 >> TILE_SHIFT;
+        int level = 0;
+        // nejjemnější úroveň, kde obdélník pokrývá nejvýše 2x2 buňky
+        while ((cx1 - cx0 > 1 || cy1 - cy0 > 1) && level + 1 < levels.length) {
+            cx0 >>= 1;
+            cy0 >>= 1;
+            cx1 >>= 1;
+            cy1 >>= 1;
+            level++;
+        }
+
+        final double[] cells = levels[level];
+        final int w = levelWidths[level];
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                if (cells[cy * w + cx] > minDepth) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void markDirty(int level, int cell) {
+        if (!dirty[level][cell]) {
+            dirty[level][cell] = true;
+            dirtyCells[level][dirtyCounts[level]++] = cell;
+        }
+    }
+
+    private double tileMax(int cell) {
+        final int x0 = (cell % levelWidths[0]) << TILE_SHIFT;
+        final int y0 = (cell / levelWidths[0]) << TILE_SHIFT;
+        final int x1 = Math.min(x0 + TILE_SIZE, depthBuffer.getWidth());
+        final int y1 = Math.min(y0 + TILE_SIZE, depthBuffer.getHeight());
+        double max = Double.NEGATIVE_INFINITY;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                max = Math.max(max, depthBuffer.get(x, y));
+            }
+        }
+        return max;
+    }
+
+    private double cellMax(int level, int cell) {
+        final int w = levelWidths[level - 1];
+        final int h = levelHeights[level - 1];
+        final double[] children = levels[level - 1];
+        final int x0 = (cell % levelWidths[level]) << 1;
+        final int y0 = (cell / levelWidths[level]) << 1;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int y = y0; y < Math.min(y0 + 2, h); y++) {
+            for (int x = x0; x < Math.min(x0 + 2, w); x++) {
+                max = Math.max(max, children[y * w + x]);
+            }
+        }
+        return max;
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+}
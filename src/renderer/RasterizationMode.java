@@ -0,0 +1,22 @@
+package renderer;
+
+/**
+ * Instance of enum {@code RasterizationMode} selects algorithm which fills
+ * triangles.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public enum RasterizationMode {
+
+    /**
+     * Vertices are sorted by Y, triangle is filled line by line
+     */
+    SCANLINE,
+    /**
+     * Edge functions are evaluated over bounding box of triangle,
+     * shared edges follow top-left fill rule
+     */
+    HALF_SPACE
+
+}
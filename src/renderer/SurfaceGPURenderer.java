@@ -2,9 +2,11 @@ package renderer;
 
 import model.*;
 import transforms.Mat4;
-import view.Raster;
+import view.FrameBuffer;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Instance of class {@code SurfaceGPURenderer}. Render object's surface.
@@ -13,97 +15,224 @@ import java.util.List;
  * @version 1.0
  */
 public class SurfaceGPURenderer extends AbstractGPURenderer {
+    private final HalfSpaceRasterizer halfSpaceRasterizer;
+    private final Fragment fragment = new Fragment();
+    private final TextureGradients gradients = new TextureGradients();
+    private TextureFilter textureFilter = TextureFilter.NEAREST;
+    private RasterizationMode rasterizationMode = RasterizationMode.SCANLINE;
+    private boolean allocationTracking;
+    private long spanAllocatedBytes;
+    private long spanPixels;
+    private int threads = 1;
+    private int tileSize = 64;
+    private ExecutorService executor;
+    private TileBinner binner;
     Texture2D texture = null;
 
-    public SurfaceGPURenderer(Raster raster) {
-        super(raster);
+    public SurfaceGPURenderer(FrameBuffer frameBuffer) {
+        super(frameBuffer);
+        halfSpaceRasterizer = new HalfSpaceRasterizer(this::drawFragment, width, height);
+    }
+
+    public RasterizationMode getRasterizationMode() {
+        return rasterizationMode;
+    }
+
+    /**
+     * Selects algorithm filling triangles
+     *
+     * @param rasterizationMode scanline or half-space
+     */
+    public void setRasterizationMode(RasterizationMode rasterizationMode) {
+        this.rasterizationMode = rasterizationMode;
+    }
+
+    public TextureFilter getTextureFilter() {
+        return textureFilter;
+    }
+
+    /**
+     * Selects filtering of textures. Level of detail is computed for every
+     * fragment from screen derivatives of texture coordinates.
+     *
+     * @param textureFilter filter of texture sampling
+     */
+    public void setTextureFilter(TextureFilter textureFilter) {
+        this.textureFilter = textureFilter;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets number of threads rasterizing triangles. With more than one thread
+     * triangles are binned to screen tiles and the tiles are rasterized in
+     * parallel by half-space rasterizer. Output is the same as from one thread
+     * with {@link RasterizationMode#HALF_SPACE}.
+     *
+     * @param threads number of threads, {@code 1} rasterizes immediately in calling thread
+     * @throws IllegalArgumentException number of threads is less than 1
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Počet vláken musí být kladné číslo: " + threads);
+        }
+        this.threads = threads;
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        if (threads > 1) {
+            executor = new ForkJoinPool(threads);
+            binner = new TileBinner(width, height, tileSize, this::drawFragment);
+        } else {
+            binner = null;
+        }
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Sets size of screen tile used for parallel rasterization.
+     *
+     * @param tileSize size of square tile in pixels, multiple of {@value HiZBuffer#TILE_SIZE}
+     * @throws IllegalArgumentException size is not positive multiple of {@value HiZBuffer#TILE_SIZE}
+     */
+    public void setTileSize(int tileSize) {
+        if (tileSize <= 0 || tileSize % HiZBuffer.TILE_SIZE != 0) {
+            throw new IllegalArgumentException("Velikost dlaždice musí být násobkem "
+                    + HiZBuffer.TILE_SIZE + ": " + tileSize);
+        }
+        this.tileSize = tileSize;
+        if (binner != null) {
+            binner = new TileBinner(width, height, tileSize, this::drawFragment);
+        }
+    }
+
+    /**
+     * Shuts down threads of parallel rasterization
+     */
+    @Override
+    public void dispose() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        binner = null;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        spanAllocatedBytes = 0;
+        spanPixels = 0;
+    }
+
+    /**
+     * Turns on measuring of memory allocated while filling spans. Requires
+     * JVM supporting {@link AllocationCounter}.
+     *
+     * @param allocationTracking {@code true} to measure
+     */
+    public void setAllocationTracking(boolean allocationTracking) {
+        this.allocationTracking = allocationTracking && AllocationCounter.isSupported();
+    }
+
+    /**
+     * @return bytes allocated inside span loops since last clear
+     */
+    public long getSpanAllocatedBytes() {
+        return spanAllocatedBytes;
+    }
+
+    /**
+     * @return pixels visited by measured span loops since last clear
+     */
+    public long getSpanPixels() {
+        return spanPixels;
     }
 
     @Override
     public void draw(Renderable... renderables) {
+        final CullMode defaultCullMode = cullMode;
+        final Mat4 baseModel = model;
         for (Renderable renderable : renderables) {
+            setRenderableModel(renderable, baseModel);
+            if (isRenderableCulled(renderable)) {
+                continue;
+            }
             texture = renderable instanceof TextureRenderable ? ((TextureRenderable) renderable).getTexture() : null;
-            draw(renderable.getParts(), renderable.getVertexBuffer(), renderable.getIndexBuffer());
+            cullMode = renderable.getCullMode();
+            drawParts(renderable.getParts(), renderable.getVertexBuffer(), renderable.getIndexArray());
         }
+        cullMode = defaultCullMode;
+        setModel(baseModel);
+        flush();
     }
 
     @Override
-    public void draw(List<Part> parts, List<Vertex> vb, List<Integer> ib) {
+    public void draw(List<Part> parts, List<Vertex> vb, IndexArray ib) {
+        drawParts(parts, vb, ib);
+        flush();
+    }
+
+    /**
+     * Rasterizes triangles waiting in tile bins.
+     */
+    private void flush() {
+        if (binner != null) {
+            binner.flush(executor);
+        }
+    }
+
+    private void drawParts(List<Part> parts, List<Vertex> vb, IndexArray ib) {
+        hiZ.update();
+        beginDraw(vb);
         for (Part part : parts) {
             final int start = part.getIndex();
             final int count = part.getCount();
             switch (part.getType()) {
                 case TRIANGLES:
-                    for (int index = start; index < start + (count * 3); index += 3) {
-                        final Integer i1 = ib.get(index);
-                        final Integer i2 = ib.get(index + 1);
-                        final Integer i3 = ib.get(index + 2);
-
-                        final Vertex v1 = vb.get(i1);
-                        final Vertex v2 = vb.get(i2);
-                        final Vertex v3 = vb.get(i3);
-
-                        prepareTriangle(v1, v2, v3);
-                    }
-                    break;
-
                 case TRIANGLE_STRIP:
-                    for (int index = start; index < count + start; index++) {
-                        final Integer i1 = ib.get(index);
-                        final Integer i2 = ib.get(index + 1);
-                        final Integer i3 = ib.get(index + 2);
-
-                        final Vertex v1 = vb.get(i1);
-                        final Vertex v2 = vb.get(i2);
-                        final Vertex v3 = vb.get(i3);
-                        prepareTriangle(v1, v2, v3);
-                    }
-                    break;
-
                 case TRIANGLE_FAN:
-                    final Vertex origin = vb.get(ib.get(start));
-                    for (int index = start; index < count + start; index++) {
-                        final Integer i2 = ib.get(index + 1);
-                        final Integer i3 = ib.get(index + 2);
-
-                        final Vertex v2 = vb.get(i2);
-                        final Vertex v3 = vb.get(i3);
-                        prepareTriangle(origin, v2, v3);
-                    }
+                    drawTriangles(part, ib);
                     break;
 
                 case LINE_LIST:
 
                     for (int index = start; index <= count; index += 2) {
-                        final Vertex v1 = vb.get(ib.get(index));
-                        final Vertex v2 = vb.get(ib.get(index + 1));
-                        prepareLine(v1, v2);
+                        final Vertex v1 = clipVertex(ib.getInt(index));
+                        final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                        clipLine(v1, v2);
                     }
                     break;
 
                 case LINE_STRIP:
                     for (int index = start; index < count + start; index++) {
-                        final Vertex v1 = vb.get(ib.get(index));
-                        final Vertex v2 = vb.get(ib.get(index + 1));
-                        prepareLine(v1, v2);
+                        final Vertex v1 = clipVertex(ib.getInt(index));
+                        final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                        clipLine(v1, v2);
                     }
                     break;
 
                 case LINE_LOOP:
-                    Vertex firstVertex = vb.get(ib.get(start));
-                    Vertex lastVertex = vb.get(vb.size() - 1);
+                    Vertex firstVertex = clipVertex(ib.getInt(start));
+                    Vertex lastVertex = clipVertex(vb.size() - 1);
                     for (int index = start; index < count + start; index++) {
-                        final Vertex v1 = vb.get(ib.get(index));
-                        final Vertex v2 = vb.get(ib.get(index + 1));
-                        prepareLine(v1, v2);
+                        final Vertex v1 = clipVertex(ib.getInt(index));
+                        final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                        clipLine(v1, v2);
                         lastVertex = v2;
                     }
-                    prepareLine(firstVertex, lastVertex);
+                    clipLine(firstVertex, lastVertex);
                     break;
 
                 case POINTS:
                     for (int index = start; index < count; index++) {
-                        preparePoint(vb.get(ib.get(index)));
+                        clipPoint(clipVertex(ib.getInt(index)));
                     }
                     break;
 
@@ -114,18 +243,17 @@ public class SurfaceGPURenderer extends AbstractGPURenderer {
     }
 
     @Override
-    public void setModel(Mat4 model) {
-        this.model = model;
-    }
-
-    @Override
-    public void setView(Mat4 view) {
-        this.view = view;
-    }
-
-    @Override
-    public void setProjection(Mat4 projection) {
-        this.projection = projection;
+    protected void rasterizeTriangle(Vertex aa, Vertex bb, Vertex cc) {
+        if (binner != null) {
+            binner.add(aa, bb, cc, texture);
+        } else if (rasterizationMode == RasterizationMode.HALF_SPACE) {
+            halfSpaceRasterizer.rasterize(aa, bb, cc, texture);
+        } else {
+            if (texture != null) {
+                gradients.set(aa, bb, cc);
+            }
+            super.rasterizeTriangle(aa, bb, cc);
+        }
     }
 
     @Override
@@ -136,39 +264,147 @@ public class SurfaceGPURenderer extends AbstractGPURenderer {
             b = tmp;
         }
 
-        for (int x = Math.max((int) a.getX() + 1, 0); x <= Math.min((int) b.getX(), width - 1); x++) {
-            double tz = getParameterT(x, a.getX(), b.getX());
-            Vertex ab = interpolate(a, b, tz);
+        if (isSpanOccluded(a, b)) {
+            return;
+        }
 
-            drawPixel(ab);
+        final int x0 = Math.max((int) a.getX() + 1, 0);
+        final int x1 = Math.min((int) b.getX(), width - 1);
+        if (x0 > x1) {
+            return;
         }
-    }
 
-    @Override
-    protected void drawPixel(Vertex ver) {
-        final int x = (int) Math.round(ver.getX());
-        final int y = (int) Math.round(ver.getY());
-        final double z = ver.getZ();
+        // přírůstky atributů na jeden pixel, spočítané jednou pro celý řádek
+        final double length = b.getX() - a.getX();
+        final double dz = (b.getZ() - a.getZ()) / length;
+        final double dOne = (b.getOne() - a.getOne()) / length;
+        final double dr = (b.getColor().getR() - a.getColor().getR()) / length;
+        final double dg = (b.getColor().getG() - a.getColor().getG()) / length;
+        final double db = (b.getColor().getB() - a.getColor().getB()) / length;
+        final double du = (b.getU() - a.getU()) / length;
+        final double dv = (b.getV() - a.getV()) / length;
 
-        // z-test
+        final double offset = x0 - a.getX();
+        final Fragment f = fragment;
+        f.texture = texture;
+        f.y = (int) Math.round(a.getY());
+        f.z = a.getZ() + dz * offset;
+        f.one = a.getOne() + dOne * offset;
+        f.r = a.getColor().getR() + dr * offset;
+        f.g = a.getColor().getG() + dg * offset;
+        f.b = a.getColor().getB() + db * offset;
+        f.u = a.getU() + du * offset;
+        f.v = a.getV() + dv * offset;
 
-        try {
-            if (zb.get(x, y) > z) {
-                zb.set(x, y, z);
+        final long allocatedBefore = allocationTracking ? AllocationCounter.allocatedBytes() : 0;
+        final int flatColor = texture == null ? getFlatColor(a, b) : -1;
+        if (flatColor >= 0) {
+            fillFlatSpan(f.y, x0, x1, f.z, dz, flatColor);
+        } else {
+            if (texture != null) {
+                // úroveň mipmapy jednou pro celý řádek, podle jeho středu
+                final double mid = (x1 - x0) / 2d;
+                f.lod = gradients.lod(f.u + du * mid, f.v + dv * mid, f.one + dOne * mid);
+            }
+            for (int x = x0; x <= x1; x++) {
+                f.x = x;
+                drawFragment(f);
+                f.z += dz;
+                f.one += dOne;
+                f.r += dr;
+                f.g += dg;
+                f.b += db;
+                f.u += du;
+                f.v += dv;
+            }
+        }
+        if (allocationTracking) {
+            spanAllocatedBytes += AllocationCounter.allocatedBytes() - allocatedBefore;
+            spanPixels += x1 - x0 + 1;
+        }
+    }
 
-                int rgb = ver.getColor().mul(1/ver.getOne()).getRGB();
-                // kontrola jestli má objekt texturu
-                if (texture != null) {
-                    final int u = ((int) Math.round(ver.getU()*(1/ver.getOne())));
-                    final int v = ((int) Math.round(ver.getV()*(1/ver.getOne())));
+    /**
+     * Color of span whose both ends have the same color after division by
+     * {@code one}. Color is then constant along the whole span.
+     *
+     * @param a dehomogenized vertex
+     * @param b dehomogenized vertex
+     * @return RGB color of the span or -1 if the color changes
+     */
+    private static int getFlatColor(Vertex a, Vertex b) {
+        final double wa = 1 / a.getOne();
+        final double wb = 1 / b.getOne();
+        final int rgbA = Fragment.toRGB(a.getColor().getR() * wa, a.getColor().getG() * wa, a.getColor().getB() * wa);
+        final int rgbB = Fragment.toRGB(b.getColor().getR() * wb, b.getColor().getG() * wb, b.getColor().getB() * wb);
+        return rgbA == rgbB ? rgbA : -1;
+    }
 
-                    rgb = texture.getColor(u, v).getRGB();
+    /**
+     * Fills span of one color. Pixels passing the depth test are written
+     * to the frame buffer by whole runs.
+     *
+     * @param y     row
+     * @param x0    first column
+     * @param x1    last column (inclusive)
+     * @param z     depth at first column
+     * @param dz    depth increment per pixel
+     * @param color RGB color
+     */
+    private void fillFlatSpan(int y, int x0, int x1, double z, double dz, int color) {
+        int index = zb.index(x0, y);
+        int runStart = -1;
+        for (int x = x0; x <= x1; x++) {
+            if (zb.testAndSet(index, z)) {
+                if (runStart < 0) {
+                    runStart = x;
                 }
-                raster.drawPixel(x, y, rgb);
+            } else if (runStart >= 0) {
+                frameBuffer.fillSpan(y, runStart, x - 1, color);
+                runStart = -1;
             }
-        } catch (Exception ignore) {
-            // při zaokrouhlení dochází k chybě, zanedbatelné
+            z += dz;
+            index++;
+        }
+        if (runStart >= 0) {
+            frameBuffer.fillSpan(y, runStart, x1, color);
         }
     }
-}
 
+    @Override
+    protected void drawPixel(Vertex ver) {
+        final Fragment f = fragment;
+        f.x = (int) Math.round(ver.getX());
+        f.y = (int) Math.round(ver.getY());
+        f.z = ver.getZ();
+        f.one = ver.getOne();
+        f.r = ver.getColor().getR();
+        f.g = ver.getColor().getG();
+        f.b = ver.getColor().getB();
+        f.u = ver.getU();
+        f.v = ver.getV();
+        f.lod = 0;
+        f.texture = texture;
+        drawFragment(f);
+    }
+
+    /**
+     * Depth test and shading of one fragment. Can be called from several
+     * threads, each for different pixels.
+     *
+     * @param f fragment
+     */
+    private void drawFragment(Fragment f) {
+        if (!zb.testAndSet(f.x, f.y, f.z)) {
+            return;
+        }
+        final double w = 1 / f.one;
+        int rgb = Fragment.toRGB(f.r * w, f.g * w, f.b * w);
+        // kontrola jestli má objekt texturu
+        if (f.texture != null) {
+            // souřadnice mimo texturu ošetří adresování textury
+            rgb = f.texture.sample(f.u * w, f.v * w, f.lod, textureFilter);
+        }
+        frameBuffer.drawPixel(f.x, f.y, rgb);
+    }
+}
@@ -0,0 +1,107 @@
+package renderer;
+
+import model.Vertex;
+
+/**
+ * Instance of class {@code TextureGradients}. Screen space derivatives of
+ * texture coordinates of one triangle, used to select mip level of texture.
+ * <br><br>
+ * Attributes {@code u/w}, {@code v/w} and {@code 1/w} are linear on the
+ * screen, so their derivatives are constant for the whole triangle.
+ * Derivatives of perspective correct {@code u} and {@code v} are then
+ * obtained in every fragment by quotient rule. Logarithm is computed only
+ * for minified texture, magnified texture uses level 0 directly.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+final class TextureGradients {
+
+    private static final double HALF_LOG2 = 0.5 / Math.log(2);
+
+    private double dUdx, dUdy;
+    private double dVdx, dVdy;
+    private double dOnedx, dOnedy;
+    // hodnoty ve vrcholu a, z nich se atributy dopočítají v libovolném bodě
+    private double originX, originY;
+    private double originU, originV, originOne;
+
+    /**
+     * Computes derivatives of triangle. Vertices have to be dehomogenized and
+     * in window coordinates.
+     *
+     * @param a vertex
+     * @param b vertex
+     * @param c vertex
+     */
+    void set(Vertex a, Vertex b, Vertex c) {
+        final double abx = b.getX() - a.getX(), aby = b.getY() - a.getY();
+        final double acx = c.getX() - a.getX(), acy = c.getY() - a.getY();
+        final double area = abx * acy - aby * acx;
+        originX = a.getX();
+        originY = a.getY();
+        originU = a.getU();
+        originV = a.getV();
+        originOne = a.getOne();
+        if (!(area != 0)) {
+            // degenerovaný trojúhelník, použije se úroveň 0
+            dUdx = dUdy = dVdx = dVdy = dOnedx = dOnedy = 0;
+            return;
+        }
+        final double inv = 1 / area;
+
+        final double u1 = b.getU() - a.getU(), u2 = c.getU() - a.getU();
+        dUdx = (u1 * acy - u2 * aby) * inv;
+        dUdy = (u2 * abx - u1 * acx) * inv;
+
+        final double v1 = b.getV() - a.getV(), v2 = c.getV() - a.getV();
+        dVdx = (v1 * acy - v2 * aby) * inv;
+        dVdy = (v2 * abx - v1 * acx) * inv;
+
+        final double o1 = b.getOne() - a.getOne(), o2 = c.getOne() - a.getOne();
+        dOnedx = (o1 * acy - o2 * aby) * inv;
+        dOnedy = (o2 * abx - o1 * acx) * inv;
+    }
+
+    /**
+     * Level of detail of fragment, binary logarithm of the number of texels
+     * covered by one pixel along its longer axis.
+     *
+     * @param u   texture coordinate multiplied by {@code one}
+     * @param v   texture coordinate multiplied by {@code one}
+     * @param one 1/w of fragment
+     * @return level of detail, {@code 0} for magnified texture
+     */
+    double lod(double u, double v, double one) {
+        final double w = 1 / one;
+        final double tu = u * w;
+        final double tv = v * w;
+        final double dudx = (dUdx - tu * dOnedx) * w;
+        final double dvdx = (dVdx - tv * dOnedx) * w;
+        final double dudy = (dUdy - tu * dOnedy) * w;
+        final double dvdy = (dVdy - tv * dOnedy) * w;
+        final double rho2 = Math.max(dudx * dudx + dvdx * dvdx, dudy * dudy + dvdy * dvdy);
+        if (!(rho2 > 1)) {
+            // zvětšená textura (nebo NaN), vždy úroveň 0 bez logaritmu
+            return 0;
+        }
+        // log2(sqrt(x)) = 0.5 * log2(x)
+        return Math.log(rho2) * HALF_LOG2;
+    }
+
+    /**
+     * Level of detail at any point of the screen, attributes are interpolated
+     * from the plane of the triangle
+     *
+     * @param x column in window coordinates
+     * @param y row in window coordinates
+     * @return level of detail, {@code 0} for magnified texture
+     */
+    double lodAt(double x, double y) {
+        final double dx = x - originX;
+        final double dy = y - originY;
+        return lod(originU + dUdx * dx + dUdy * dy,
+                originV + dVdx * dx + dVdy * dy,
+                originOne + dOnedx * dx + dOnedy * dy);
+    }
+}
@@ -0,0 +1,164 @@
+package renderer;
+
+import model.Texture2D;
+import model.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Instance of class {@code TileBinner}. Collects triangles in window
+ * coordinates and sorts them into bins of screen tiles they overlap. Tiles are
+ * then rasterized in parallel, every tile by one task which writes only pixels
+ * of its own tile, so depth buffer and raster need no locking.
+ * <br><br>
+ * Triangles of one tile are rasterized in order in which they were added,
+ * so the result is the same as rasterizing them one by one in one thread.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+class TileBinner {
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int tilesX;
+    private final int[][] bins;
+    private final int[] binCounts;
+    // jeden rasterizér pro každé pracovní vlákno, ne pro každou dlaždici
+    private final ThreadLocal<HalfSpaceRasterizer> rasterizers;
+    private Vertex[] vertices = new Vertex[3 * 256];
+    private Texture2D[] textures = new Texture2D[256];
+    private int triangleCount;
+
+    /**
+     * @param width    width of viewport
+     * @param height   height of viewport
+     * @param tileSize  size of square tile in pixels
+     * @param processor receiver of fragments, called from several threads
+     */
+    TileBinner(int width, int height, int tileSize, FragmentProcessor processor) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.tilesX = (width + tileSize - 1) / tileSize;
+        final int tilesY = (height + tileSize - 1) / tileSize;
+        this.bins = new int[tilesX * tilesY][16];
+        this.binCounts = new int[tilesX * tilesY];
+        this.rasterizers = ThreadLocal.withInitial(() -> new HalfSpaceRasterizer(processor, width, height));
+    }
+
+    int getTileSize() {
+        return tileSize;
+    }
+
+    boolean isEmpty() {
+        return triangleCount == 0;
+    }
+
+    /**
+     * Adds triangle to every tile its bounding box overlaps.
+     *
+     * @param a       vertex in window coordinates
+     * @param b       vertex in window coordinates
+     * @param c       vertex in window coordinates
+     * @param texture texture of triangle, may be {@code null}
+     */
+    void add(Vertex a, Vertex b, Vertex c, Texture2D texture) {
+        final int minX = Math.max((int) Math.floor(Math.min(a.getX(), Math.min(b.getX(), c.getX()))), 0);
+        final int maxX = Math.min((int) Math.ceil(Math.max(a.getX(), Math.max(b.getX(), c.getX()))), width - 1);
+        final int minY = Math.max((int) Math.floor(Math.min(a.getY(), Math.min(b.getY(), c.getY()))), 0);
+        final int maxY = Math.min((int) Math.ceil(Math.max(a.getY(), Math.max(b.getY(), c.getY()))), height - 1);
+        if (minX > maxX || minY > maxY) {
+            return;
+        }
+
+        if (triangleCount == textures.length) {
+            textures = Arrays.copyOf(textures, triangleCount * 2);
+            vertices = Arrays.copyOf(vertices, triangleCount * 6);
+        }
+        final int triangle = triangleCount++;
+        vertices[3 * triangle] = a;
+        vertices[3 * triangle + 1] = b;
+        vertices[3 * triangle + 2] = c;
+        textures[triangle] = texture;
+
+        for (int ty = minY / tileSize; ty <= maxY / tileSize; ty++) {
+            for (int tx = minX / tileSize; tx <= maxX / tileSize; tx++) {
+                final int tile = ty * tilesX + tx;
+                if (binCounts[tile] == bins[tile].length) {
+                    bins[tile] = Arrays.copyOf(bins[tile], binCounts[tile] * 2);
+                }
+                bins[tile][binCounts[tile]++] = triangle;
+            }
+        }
+    }
+
+    /**
+     * Rasterizes all collected triangles and empties the bins. Returns when
+     * all tiles are done.
+     *
+     * @param executor executor running tiles
+     * @throws IllegalStateException rasterization of a tile failed or the
+     *                               calling thread was interrupted, the frame
+     *                               is incomplete
+     */
+    void flush(ExecutorService executor) {
+        if (triangleCount == 0) {
+            return;
+        }
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int tile = 0; tile < bins.length; tile++) {
+            if (binCounts[tile] > 0) {
+                final int t = tile;
+                tasks.add(() -> {
+                    rasterizeTile(t);
+                    return null;
+                });
+            }
+        }
+
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            // nedokončený snímek se nesmí zobrazit
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rasterization was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rasterization of tile failed", e.getCause());
+        } finally {
+            Arrays.fill(binCounts, 0);
+            Arrays.fill(vertices, 0, 3 * triangleCount, null);
+            Arrays.fill(textures, 0, triangleCount, null);
+            triangleCount = 0;
+        }
+    }
+
+    private void rasterizeTile(int tile) {
+        final int x0 = (tile % tilesX) * tileSize;
+        final int y0 = (tile / tilesX) * tileSize;
+        final HalfSpaceRasterizer rasterizer = rasterizers.get();
+        rasterizer.setBounds(x0, y0,
+                Math.min(x0 + tileSize, width) - 1,
+                Math.min(y0 + tileSize, height) - 1);
+
+        final int[] bin = bins[tile];
+        for (int i = 0; i < binCounts[tile]; i++) {
+            final int triangle = bin[i];
+            rasterizer.rasterize(
+                    vertices[3 * triangle],
+                    vertices[3 * triangle + 1],
+                    vertices[3 * triangle + 2],
+                    textures[triangle]
+            );
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package renderer;
+
+import model.Vertex;
+import model.VertexArray;
+import transforms.Col;
+import transforms.Mat4;
+import transforms.Point3D;
+import transforms.Vec2D;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Instance of class {@code VertexCache}. Post-transform cache of one vertex
+ * buffer. Every vertex is transformed into clip space at most once per draw
+ * call, no matter how many primitives share it. Vertices of
+ * {@link VertexArray} are transformed directly from its primitive arrays.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+class VertexCache {
+
+    private Vertex[] entries = new Vertex[0];
+    private int[] stamps = new int[0];
+    private int stamp;
+    private List<Vertex> vertexBuffer;
+    private Mat4 modelViewProjection;
+    private VertexArray packed;
+    private final double[] matrix = new double[16];
+    private long hits;
+    private long transforms;
+
+    /**
+     * Starts new draw call, all cached vertices become invalid.
+     *
+     * @param vertexBuffer        vertex buffer of drawn object
+     * @param modelViewProjection combined model, view and projection matrix
+     */
+    void begin(List<Vertex> vertexBuffer, Mat4 modelViewProjection) {
+        this.vertexBuffer = vertexBuffer;
+        this.modelViewProjection = modelViewProjection;
+        this.packed = vertexBuffer instanceof VertexArray ? (VertexArray) vertexBuffer : null;
+        if (packed != null) {
+            for (int row = 0; row < 4; row++) {
+                for (int column = 0; column < 4; column++) {
+                    matrix[4 * row + column] = modelViewProjection.get(row, column);
+                }
+            }
+        }
+
+        final int size = vertexBuffer.size();
+        if (entries.length < size) {
+            entries = new Vertex[size];
+            stamps = new int[size];
+            stamp = 0;
+        }
+        // přetečení čítače vyřeší jednorázové vynulování
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Vertex in clip space
+     *
+     * @param index index to vertex buffer
+     * @return transformed vertex
+     */
+    Vertex get(int index) {
+        if (stamps[index] == stamp) {
+            hits++;
+            return entries[index];
+        }
+        transforms++;
+        final Vertex transformed;
+        if (packed != null) {
+            transformed = transformPacked(index);
+        } else {
+            final Vertex v = vertexBuffer.get(index);
+            transformed = v.withPoint(v.getPoint().mul(modelViewProjection));
+        }
+        entries[index] = transformed;
+        stamps[index] = stamp;
+        return transformed;
+    }
+
+    private Vertex transformPacked(int index) {
+        final double x = packed.getX(index);
+        final double y = packed.getY(index);
+        final double z = packed.getZ(index);
+        final double w = packed.getW(index);
+        final double[] m = matrix;
+        // řádkový vektor krát matice, stejně jako Point3D.mul(Mat4)
+        return new Vertex(
+                new Point3D(
+                        x * m[0] + y * m[4] + z * m[8] + w * m[12],
+                        x * m[1] + y * m[5] + z * m[9] + w * m[13],
+                        x * m[2] + y * m[6] + z * m[10] + w * m[14],
+                        x * m[3] + y * m[7] + z * m[11] + w * m[15]
+                ),
+                new Col(packed.getR(index), packed.getG(index), packed.getB(index)),
+                new Vec2D(packed.getU(index), packed.getV(index))
+        );
+    }
+
+    /**
+     * @return number of vertices taken from the cache
+     */
+    long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of transformed vertices
+     */
+    long getTransforms() {
+        return transforms;
+    }
+
+    void resetCounters() {
+        hits = 0;
+        transforms = 0;
+    }
+}
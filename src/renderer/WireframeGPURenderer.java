@@ -1,10 +1,12 @@
 package renderer;
 
+import model.CullMode;
+import model.IndexArray;
 import model.Part;
 import model.Renderable;
 import model.Vertex;
 import transforms.Mat4;
-import view.Raster;
+import view.FrameBuffer;
 
 import java.util.List;
 
@@ -17,78 +19,54 @@ import java.util.List;
  */
 public class WireframeGPURenderer extends AbstractGPURenderer {
 
-    public WireframeGPURenderer(Raster raster) {
-        super(raster);
+    public WireframeGPURenderer(FrameBuffer frameBuffer) {
+        super(frameBuffer);
     }
 
     @Override
-    public void draw(List<Part> parts, List<Vertex> vb, List<Integer> ib) {
+    public void draw(List<Part> parts, List<Vertex> vb, IndexArray ib) {
+        beginDraw(vb);
         for (Part part : parts) {
             final int start = part.getIndex();
             final int count = part.getCount();
             switch (part.getType()) {
                 case POINTS:
                     for (int index = start; index < count; index++) {
-                        preparePoint(vb.get(ib.get(index)));
+                        clipPoint(clipVertex(ib.getInt(index)));
                     }
                     break;
                 case TRIANGLES:
-                    for (int index = start; index < start + (count * 3); index += 3) {
-                        final Vertex v1 = vb.get(ib.get(index));
-                        final Vertex v2 = vb.get(ib.get(index + 1));
-                        final Vertex v3 = vb.get(ib.get(index + 2));
-                        prepareLine(v1, v2);
-                        prepareLine(v2, v3);
-                        prepareLine(v3, v1);
-                    }
-                    break;
                 case TRIANGLE_STRIP:
-                    for (int index = start; index < count + start; index++) {
-                        final Vertex v1 = vb.get(ib.get(index));
-                        final Vertex v2 = vb.get(ib.get(index + 1));
-                        final Vertex v3 = vb.get(ib.get(index + 2));
-                        prepareLine(v1, v2);
-                        prepareLine(v2, v3);
-                        prepareLine(v3, v1);
-                    }
-                    break;
                 case TRIANGLE_FAN:
-                    final Vertex origin = vb.get(ib.get(start));
-                    for (int index = start; index < count + start; index++) {
-                        final Vertex v1 = vb.get(ib.get(index + 1));
-                        final Vertex v2 = vb.get(ib.get(index + 2));
-                        prepareLine(origin, v1);
-                        prepareLine(v1, v2);
-                        prepareLine(v2, origin);
-                    }
+                    drawTriangles(part, ib);
                     break;
 
                 case LINE_LIST:
                     for (int index = start; index <= count; index += 2) {
-                        final Vertex v1 = vb.get(ib.get(index));
-                        final Vertex v2 = vb.get(ib.get(index + 1));
-                        prepareLine(v1, v2);
+                        final Vertex v1 = clipVertex(ib.getInt(index));
+                        final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                        clipLine(v1, v2);
                     }
                     break;
 
                 case LINE_STRIP:
                     for (int index = start; index < count + start; index++) {
-                        final Vertex v1 = vb.get(ib.get(index));
-                        final Vertex v2 = vb.get(ib.get(index + 1));
-                        prepareLine(v1, v2);
+                        final Vertex v1 = clipVertex(ib.getInt(index));
+                        final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                        clipLine(v1, v2);
                     }
                     break;
 
                 case LINE_LOOP:
-                    Vertex firstVertex = vb.get(ib.get(start));
-                    Vertex lastVertex = vb.get(vb.size() - 1);
+                    Vertex firstVertex = clipVertex(ib.getInt(start));
+                    Vertex lastVertex = clipVertex(vb.size() - 1);
                     for (int index = start; index < count + start; index++) {
-                        final Vertex v1 = vb.get(ib.get(index));
-                        final Vertex v2 = vb.get(ib.get(index + 1));
-                        prepareLine(v1, v2);
+                        final Vertex v1 = clipVertex(ib.getInt(index));
+                        final Vertex v2 = clipVertex(ib.getInt(index + 1));
+                        clipLine(v1, v2);
                         lastVertex = v2;
                     }
-                    prepareLine(firstVertex, lastVertex);
+                    clipLine(firstVertex, lastVertex);
                     break;
 
                 default:
@@ -97,25 +75,39 @@ public class WireframeGPURenderer extends AbstractGPURenderer {
         }
     }
 
+    /**
+     * Draws edges of triangle. Back faces are skipped by the same cull mode
+     * as in {@link SurfaceGPURenderer}.
+     *
+     * @param a vertex in clip space
+     * @param b vertex in clip space
+     * @param c vertex in clip space
+     */
     @Override
-    public void draw(Renderable... renderables) {
-        for (Renderable renderable : renderables) {
-            draw(renderable.getParts(), renderable.getVertexBuffer(), renderable.getIndexBuffer());
+    protected void assembleTriangle(Vertex a, Vertex b, Vertex c) {
+        if (isClipTriangleCulled(a, b, c)) {
+            culledTriangles++;
+            return;
         }
+        clipLine(a, b);
+        clipLine(b, c);
+        clipLine(c, a);
     }
 
     @Override
-    public void setModel(Mat4 model) {
-        this.model = model;
-    }
-
-    @Override
-    public void setView(Mat4 view) {
-        this.view = view;
+    public void draw(Renderable... renderables) {
+        final CullMode defaultCullMode = cullMode;
+        final Mat4 baseModel = model;
+        for (Renderable renderable : renderables) {
+            setRenderableModel(renderable, baseModel);
+            if (isRenderableCulled(renderable)) {
+                continue;
+            }
+            cullMode = renderable.getCullMode();
+            draw(renderable.getParts(), renderable.getVertexBuffer(), renderable.getIndexArray());
+        }
+        cullMode = defaultCullMode;
+        setModel(baseModel);
     }
 
-    @Override
-    public void setProjection(Mat4 projection) {
-        this.projection = projection;
-    }
 }
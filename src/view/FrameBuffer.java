@@ -0,0 +1,78 @@
+package view;
+
+/**
+ * Instance of interface {@code FrameBuffer}. Target of renderers, a rectangle
+ * of RGB pixels stored row by row, index of pixel is {@code y * width + x}.
+ * <br><br>
+ * Implementations are {@link Raster} shown in Swing and
+ * {@link OffscreenFrameBuffer} which needs no display.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public interface FrameBuffer {
+
+    int getWidth();
+
+    int getHeight();
+
+    /**
+     * Fills frame with background
+     */
+    void clear();
+
+    /**
+     * Lazy clear restores background only where it was drawn to since last
+     * clear.
+     *
+     * @param lazyClear {@code true} for lazy clearing
+     */
+    void setLazyClear(boolean lazyClear);
+
+    boolean isLazyClear();
+
+    void drawPixel(int x, int y, int color);
+
+    /**
+     * Fills part of one row with one color
+     *
+     * @param y     row
+     * @param x1    first column
+     * @param x2    last column (inclusive)
+     * @param color RGB color
+     */
+    void fillSpan(int y, int x1, int x2, int color);
+
+    /**
+     * Pixels of frame being drawn, row by row. Pixels written directly to the
+     * array have to be reported by {@link #markDirty(int, int, int, int)}.
+     *
+     * @return array of RGB pixels
+     */
+    int[] getPixels();
+
+    /**
+     * Reports rectangle written directly to {@link #getPixels()}
+     *
+     * @param x1 left column
+     * @param y1 top row
+     * @param x2 right column (inclusive)
+     * @param y2 bottom row (inclusive)
+     */
+    void markDirty(int x1, int y1, int x2, int y2);
+
+    /**
+     * Color of pixel in the frame being drawn. Pixels are stored without
+     * alpha, the returned color is always opaque.
+     *
+     * @param x column
+     * @param y row
+     * @return ARGB color with alpha {@code 0xFF}
+     */
+    int getPixelColor(int x, int y);
+
+    /**
+     * Finished frame is presented, next frame is drawn to the next buffer
+     */
+    void swapBuffers();
+}
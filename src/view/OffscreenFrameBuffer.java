@@ -0,0 +1,129 @@
+package view;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Instance of class {@code OffscreenFrameBuffer}. Frame buffer in plain
+ * {@code int} array, without any window or Swing thread. It works with
+ * {@code java.awt.headless=true}, e.g. for benchmarks or rendering on
+ * machines without display.
+ * <br><br>
+ * There is only one buffer, {@link #swapBuffers()} counts frames only.
+ * Clearing fills the whole array with one color, which is as fast as
+ * restoring dirty parts, so lazy clear is only remembered.
+ *
+ * @author Stanislav Čapek
+ * @version 1.0
+ */
+public class OffscreenFrameBuffer implements FrameBuffer {
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private int clearColor = 0xFFFFFF;
+    private boolean lazyClear;
+    private long frames;
+
+    /**
+     * @param width  of frame
+     * @param height of frame
+     * @throws IllegalArgumentException size is not positive
+     */
+    public OffscreenFrameBuffer(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Size has to be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.pixels = new int[width * height];
+        clear();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(pixels, clearColor);
+    }
+
+    public int getClearColor() {
+        return clearColor;
+    }
+
+    /**
+     * @param clearColor RGB color of background
+     */
+    public void setClearColor(int clearColor) {
+        this.clearColor = clearColor;
+    }
+
+    @Override
+    public void setLazyClear(boolean lazyClear) {
+        this.lazyClear = lazyClear;
+    }
+
+    @Override
+    public boolean isLazyClear() {
+        return lazyClear;
+    }
+
+    @Override
+    public void drawPixel(int x, int y, int color) {
+        pixels[y * width + x] = color;
+    }
+
+    @Override
+    public void fillSpan(int y, int x1, int x2, int color) {
+        final int row = y * width;
+        Arrays.fill(pixels, row + x1, row + x2 + 1, color);
+    }
+
+    @Override
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    @Override
+    public void markDirty(int x1, int y1, int x2, int y2) {
+        // vše se maže celé, není co evidovat
+    }
+
+    @Override
+    public int getPixelColor(int x, int y) {
+        return pixels[y * width + x] | 0xFF000000;
+    }
+
+    @Override
+    public void swapBuffers() {
+        frames++;
+    }
+
+    /**
+     * @return number of presented frames
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Copy of the frame as an image, e.g. for {@link javax.imageio.ImageIO}
+     *
+     * @return new image
+     */
+    public BufferedImage toImage() {
+        final BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final int[] data = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+        System.arraycopy(pixels, 0, data, 0, pixels.length);
+        return img;
+    }
+}
@@ -3,23 +3,57 @@ package view;
 import javax.swing.JPanel;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 
 /**
  * Instance of class {@code Raster}. Canvas (graphic context)
+ * <br><br>
+ * Canvas is double buffered. Drawing methods write to the back buffer, Swing
+ * paints the front buffer. {@link #swapBuffers()} exchanges them when a frame
+ * is finished, so a half drawn frame is never presented.
+ * <br><br>
+ * Pixels are written directly to the {@code int} array backing the image,
+ * row by row, index of pixel is {@code y * width + x}.
  *
  * @author Milan Košťák, Stanislav Čapek
- * @version 1.5
+ * @version 1.8
  */
-public class Raster extends JPanel {
+public class Raster extends JPanel implements FrameBuffer {
 
-    private final BufferedImage img; // objekt pro zápis pixelů
-    private final Graphics g; // objekt nad kterým jsou k dispozici grafické funkce
-    private static final int FPS = 1000 / 30;
+    private static final int TILE_SHIFT = 5;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private final Object swapLock = new Object();
     private final int width;
     private final int height;
-    private String textAnimation = "";
+    private final int tilesX;
+    private Buffer front;
+    private Buffer back;
+    private volatile int[] background;
+    private volatile int backgroundVersion;
+    private boolean lazyClear;
+    private volatile String textAnimation = "";
+
+    /**
+     * One image of double buffer with its own set of tiles drawn to since its
+     * last clear.
+     */
+    private final class Buffer {
+        private final BufferedImage img; // objekt pro zápis pixelů
+        private final int[] pixels; // pole obrázku, zápis bez kontrol a převodů ColorModelu
+        private final Graphics g; // objekt nad kterým jsou k dispozici grafické funkce
+        private final boolean[] dirtyTiles;
+        private int backgroundVersion = -1;
+
+        private Buffer() {
+            // inicializace image, nastavení rozměrů (nastavení typu - pro nás nedůležité)
+            img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+            g = img.getGraphics();
+            ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            dirtyTiles = new boolean[tilesX * ((height + TILE_SIZE - 1) / TILE_SIZE)];
+        }
+    }
 
 
     /**
@@ -29,12 +63,12 @@ public class Raster extends JPanel {
     public Raster(int width, int height) {
         this.width = width;
         this.height = height;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
         setPreferredSize(new Dimension(width, height));
-        // inicializace image, nastavení rozměrů (nastavení typu - pro nás nedůležité)
-        img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        g = img.getGraphics();
-        ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        setLoop();
+        front = new Buffer();
+        back = new Buffer();
+        clear();
+        swapBuffers();
         clear();
     }
 
@@ -48,31 +82,94 @@ public class Raster extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        g.drawImage(img, 0, 0, null);
-        firePropertyChange("fps", 0, FPS);
-        // pro zájemce - co dělá observer - https://stackoverflow.com/a/1684476
+        synchronized (swapLock) {
+            g.drawImage(front.img, 0, 0, null);
+        }
     }
 
-    private void setLoop() {
-        // časovač, který 30 krát za vteřinu obnoví obsah plátna aktuálním img
-        new Timer().schedule(new TimerTask() {
-            @Override
-            public void run() {
-                repaint();
-            }
-        }, 0, FPS);
+    /**
+     * Finished back buffer becomes front buffer and is presented. Previous
+     * front buffer is used for drawing of next frame.
+     */
+    @Override
+    public void swapBuffers() {
+        synchronized (swapLock) {
+            final Buffer tmp = front;
+            front = back;
+            back = tmp;
+        }
+        repaint();
     }
 
+    @Override
     public void clear() {
+        final Buffer buffer = back;
+        int[] bgPixels = background;
+        if (bgPixels == null) {
+            final BufferedImage bgImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            final Graphics bg = bgImage.getGraphics();
+            paintBackground(bg);
+            bg.dispose();
+            bgPixels = ((DataBufferInt) bgImage.getRaster().getDataBuffer()).getData();
+            background = bgPixels;
+            backgroundVersion++;
+        }
+
+        if (!lazyClear) {
+            System.arraycopy(bgPixels, 0, buffer.pixels, 0, bgPixels.length);
+            Arrays.fill(buffer.dirtyTiles, false);
+            buffer.backgroundVersion = backgroundVersion;
+            return;
+        }
+
+        if (buffer.backgroundVersion != backgroundVersion) {
+            // nové pozadí se musí překreslit celé
+            Arrays.fill(buffer.dirtyTiles, true);
+            buffer.backgroundVersion = backgroundVersion;
+        }
+
+        // obnoví pozadí jen u dlaždic, do kterých se kreslilo
+        final boolean[] dirtyTiles = buffer.dirtyTiles;
+        for (int tile = 0; tile < dirtyTiles.length; tile++) {
+            if (dirtyTiles[tile]) {
+                final int x1 = (tile % tilesX) * TILE_SIZE;
+                final int y1 = (tile / tilesX) * TILE_SIZE;
+                final int length = Math.min(x1 + TILE_SIZE, width) - x1;
+                final int y2 = Math.min(y1 + TILE_SIZE, height);
+                for (int y = y1; y < y2; y++) {
+                    final int index = y * width + x1;
+                    System.arraycopy(bgPixels, index, buffer.pixels, index, length);
+                }
+                dirtyTiles[tile] = false;
+            }
+        }
+    }
+
+    /**
+     * Lazy clear restores background only in tiles which were drawn to since
+     * last clear. Otherwise the whole background is copied again.
+     *
+     * @param lazyClear {@code true} for lazy clearing
+     */
+    @Override
+    public void setLazyClear(boolean lazyClear) {
+        this.lazyClear = lazyClear;
+    }
+
+    @Override
+    public boolean isLazyClear() {
+        return lazyClear;
+    }
+
+    private void paintBackground(Graphics graphics) {
         final GradientPaint gradientPaint = new GradientPaint(
                 0, 0, Color.WHITE,
                 0, ((float) (height * 0.75)), Color.LIGHT_GRAY);
-        ((Graphics2D) g).setPaint(gradientPaint);
-        g.fillRect(0, 0, width, height);
-        g.setColor(Color.BLACK);
-        g.drawString("F1 - HELP", 15, 15);
-        g.drawString(textAnimation, 15, 45);
-
+        ((Graphics2D) graphics).setPaint(gradientPaint);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.BLACK);
+        graphics.drawString("F1 - HELP", 15, 15);
+        graphics.drawString(textAnimation, 15, 45);
     }
 
     @Override
@@ -87,18 +184,75 @@ public class Raster extends JPanel {
 
     public void setTextAnimation(String textAnimation) {
         this.textAnimation = textAnimation;
+        // pozadí s textem se při příštím mazání vytvoří znovu
+        this.background = null;
     }
 
+    @Override
     public void drawPixel(int x, int y, int color) {
-        img.setRGB(x, y, color);
+        final Buffer buffer = back;
+        buffer.pixels[y * width + x] = color;
+        buffer.dirtyTiles[(y >> TILE_SHIFT) * tilesX + (x >> TILE_SHIFT)] = true;
+    }
+
+    /**
+     * Fills part of one row with one color
+     *
+     * @param y     row
+     * @param x1    first column
+     * @param x2    last column (inclusive)
+     * @param color RGB color
+     */
+    @Override
+    public void fillSpan(int y, int x1, int x2, int color) {
+        final Buffer buffer = back;
+        final int row = y * width;
+        Arrays.fill(buffer.pixels, row + x1, row + x2 + 1, color);
+        final int tileRow = (y >> TILE_SHIFT) * tilesX;
+        for (int tile = x1 >> TILE_SHIFT; tile <= x2 >> TILE_SHIFT; tile++) {
+            buffer.dirtyTiles[tileRow + tile] = true;
+        }
+    }
+
+    /**
+     * Pixels of back buffer, row by row. Pixels written directly to the
+     * array have to be reported by {@link #markDirty(int, int, int, int)},
+     * otherwise lazy clear does not restore them.
+     *
+     * @return array of RGB pixels
+     */
+    @Override
+    public int[] getPixels() {
+        return back.pixels;
     }
 
+    /**
+     * Reports rectangle written directly to {@link #getPixels()}
+     *
+     * @param x1 left column
+     * @param y1 top row
+     * @param x2 right column (inclusive)
+     * @param y2 bottom row (inclusive)
+     */
+    @Override
+    public void markDirty(int x1, int y1, int x2, int y2) {
+        final boolean[] dirtyTiles = back.dirtyTiles;
+        for (int ty = y1 >> TILE_SHIFT; ty <= y2 >> TILE_SHIFT; ty++) {
+            for (int tx = x1 >> TILE_SHIFT; tx <= x2 >> TILE_SHIFT; tx++) {
+                dirtyTiles[ty * tilesX + tx] = true;
+            }
+        }
+    }
+
+    @Override
     public int getPixelColor(int x, int y) {
-        return img.getRGB(x, y);
+        return back.pixels[y * width + x] | 0xFF000000;
     }
 
     public void drawLine(int x1, int y1, int x2, int y2, Color color) {
-        g.setColor(color);
-        g.drawLine(x1, y1, x2, y2);
+        final Buffer buffer = back;
+        buffer.g.setColor(color);
+        buffer.g.drawLine(x1, y1, x2, y2);
+        Arrays.fill(buffer.dirtyTiles, true);
     }
 }